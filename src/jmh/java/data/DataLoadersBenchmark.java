@@ -0,0 +1,73 @@
+package data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.BenchmarkFixtures;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo dos loaders de massa de dados e de configuração: {@link PropertiesLoader}, {@link InternalPropertiesLoader},
+ * {@link YamlFileLoader} e {@link JsonLoader}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataLoadersBenchmark {
+
+    private String yamlPath;
+    private YamlFileLoader yamlFileLoader;
+    private JsonLoader jsonLoader;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkFixtures.prepareProjectDir();
+        yamlPath = BenchmarkFixtures.resolve("massa.yaml").toString();
+        yamlFileLoader = new YamlFileLoader(yamlPath);
+        jsonLoader = new JsonLoader();
+        JsonDataStore.getInstance().setJsonContent(new String(Files.readAllBytes(BenchmarkFixtures.resolve("json/massa.json"))));
+    }
+
+    @Benchmark
+    public PropertiesLoader newPropertiesLoader() {
+        return new PropertiesLoader("configuration.properties");
+    }
+
+    @Benchmark
+    public InternalPropertiesLoader newInternalPropertiesLoader() {
+        return new InternalPropertiesLoader("configuration_core.properties");
+    }
+
+    @Benchmark
+    public String internalPropertiesGetValue() {
+        return new InternalPropertiesLoader("configuration_core.properties").getValue("mobile.appium.capability.noReset");
+    }
+
+    @Benchmark
+    public YamlFileLoader newYamlFileLoader() throws IOException {
+        return new YamlFileLoader(yamlPath);
+    }
+
+    @Benchmark
+    public Object yamlGetAttribute() throws Exception {
+        return yamlFileLoader.getAttribute("usuario", "nome");
+    }
+
+    @Benchmark
+    public String jsonGetValueFromJson() {
+        return jsonLoader.getValueFromJson("$.usuario.enderecos[1].cidade");
+    }
+}
@@ -0,0 +1,63 @@
+package flutter;
+
+import io.github.ashwith.flutter.FlutterElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de {@link PageFactoryFlutter#initElements(RemoteWebDriver, Object)}, executado na criação das telas
+ * Flutter; os campos anotados são lidos uma única vez por classe. O driver é um stub sem sessão: nenhum
+ * comando é enviado ao servidor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageFactoryFlutterBenchmark {
+
+    private final RemoteWebDriver driver = new RemoteWebDriver() {
+    };
+
+    @Benchmark
+    public Object initElements() {
+        LoginScreen screen = new LoginScreen();
+        PageFactoryFlutter.initElements(driver, screen);
+        return screen;
+    }
+
+    /**
+     * Tela Flutter típica, com elementos de todas as estratégias de localização.
+     */
+    static class LoginScreen {
+        @FlutterFindBy(key = "campo_usuario")
+        private FlutterElement user;
+        @FlutterFindBy(key = "campo_senha")
+        private FlutterElement password;
+        @FlutterFindBy(text = "Entrar")
+        private WebElement login;
+        @FlutterFindBy(text = "Esqueci minha senha")
+        private WebElement forgotPassword;
+        @FlutterFindBy(type = "CircularProgressIndicator")
+        private FlutterElement loading;
+        @FlutterFindBy(toolTip = "Voltar")
+        private FlutterElement back;
+        @FlutterFindBy(semanticsLabel = "Logo do banco")
+        private FlutterElement logo;
+        @FlutterFindBy(semanticsLabelPattern = "Versão \\d+\\.\\d+")
+        private FlutterElement version;
+        private String title = "Login";
+    }
+}
@@ -0,0 +1,61 @@
+package hooks;
+
+import io.cucumber.java.Scenario;
+import mobile.DriverRegistry;
+import mobile.Mobile;
+import mobile.StubEnvironment;
+import mobile.StubScreen;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ciclo de vida completo de um cenário mobile contra o {@link mobile.AppiumStubServer}: {@link Hooks#beforeMobile(Scenario)},
+ * criação da tela, uma verificação e {@link Hooks#afterMobile(Scenario)}. Para encontrar o limite de sessões
+ * simultâneas execute com várias threads, ex.: -Djmh.args="ScenarioLifecycleBenchmark -t 200".
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ScenarioLifecycleBenchmark {
+
+    @State(Scope.Thread)
+    public static class HooksState {
+        Hooks hooks;
+
+        @Setup(Level.Trial)
+        public void setup(StubEnvironment environment) {
+            hooks = new Hooks();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            Mobile.closeDriver();
+            DriverRegistry.release();
+        }
+    }
+
+    @Benchmark
+    public boolean scenario(HooksState state) {
+        Scenario scenario = new StubScenario("file:///features/login.feature", "@Mobile", "@android").asScenario();
+        state.hooks.beforeMobile(scenario);
+        try {
+            return new StubScreen().isView();
+        } finally {
+            state.hooks.afterMobile(scenario);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package hooks;
+
+import io.cucumber.core.backend.Status;
+import io.cucumber.core.backend.TestCaseState;
+import io.cucumber.java.Scenario;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Cenário Cucumber simulado, utilizado para executar os {@link Hooks} nos benchmarks sem o runner do Cucumber.
+ */
+public class StubScenario implements TestCaseState {
+
+    private final String id = UUID.randomUUID().toString();
+    private final URI uri;
+    private final Collection<String> tags;
+
+    public StubScenario(String featureUri, String... tags) {
+        this.uri = URI.create(featureUri);
+        this.tags = Arrays.asList(tags);
+    }
+
+    /**
+     * Retorna o cenário no formato recebido pelos hooks. O construtor de {@link Scenario} não é público e por
+     * isso é utilizado por reflexão.
+     *
+     * @return Scenario
+     */
+    public Scenario asScenario() {
+        try {
+            Constructor<Scenario> constructor = Scenario.class.getDeclaredConstructor(TestCaseState.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(this);
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Não foi possível criar o cenário simulado", e);
+        }
+    }
+
+    @Override
+    public Collection<String> getSourceTagNames() {
+        return tags;
+    }
+
+    @Override
+    public Status getStatus() {
+        return Status.PASSED;
+    }
+
+    @Override
+    public boolean isFailed() {
+        return false;
+    }
+
+    @Override
+    public void attach(byte[] data, String mediaType, String name) {
+    }
+
+    @Override
+    public void attach(String data, String mediaType, String name) {
+    }
+
+    @Override
+    public void log(String text) {
+    }
+
+    @Override
+    public String getName() {
+        return "Cenário simulado";
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public URI getUri() {
+        return uri;
+    }
+
+    @Override
+    public Integer getLine() {
+        return 1;
+    }
+}
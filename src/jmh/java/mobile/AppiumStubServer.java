@@ -0,0 +1,537 @@
+package mobile;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import exceptions.AutomationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.BenchmarkFixtures;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Servidor local que implementa o subconjunto do protocolo W3C WebDriver / Appium utilizado pelo framework
+ * (sessões, busca de elementos, click, sendKeys, page source, screenshot, contextos, actions, timeouts,
+ * scripts 'flutter:' e 'mobile:', terminate/activate app). Permite medir o overhead do próprio framework e
+ * simular centenas de sessões simultâneas sem dispositivo ou Appium.
+ * <p>
+ * A latência de cada comando e a taxa de falhas são configuráveis, e as respostas são compactadas com gzip
+ * quando o cliente solicitar. Os valores de localizadores informados em
+ * {@link #withAbsentLocators(String...)} nunca são encontrados, simulando elementos que desapareceram da tela.
+ */
+public class AppiumStubServer implements AutoCloseable {
+
+    static final Logger logger = LogManager.getLogger(AppiumStubServer.class);
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private final Map<String, StubSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> commandCount = new ConcurrentHashMap<>();
+    private final Set<String> absentLocators = ConcurrentHashMap.newKeySet();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration latencyJitter = Duration.ZERO;
+    private volatile double failureRate;
+    private volatile int pageSourceNodes = 60;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private String screenshotBase64;
+
+    /**
+     * Define a latência fixa e a variação aleatória aplicadas a cada comando.
+     *
+     * @param latency latência fixa
+     * @param jitter  variação máxima somada à latência fixa
+     * @return AppiumStubServer
+     */
+    public AppiumStubServer withLatency(Duration latency, Duration jitter) {
+        this.latency = latency;
+        this.latencyJitter = jitter;
+        return this;
+    }
+
+    /**
+     * Define a probabilidade (0 a 1) de um comando de sessão responder com 'unknown error'.
+     * A criação e o encerramento de sessões nunca falham.
+     *
+     * @param failureRate taxa de falhas
+     * @return AppiumStubServer
+     */
+    public AppiumStubServer withFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+        return this;
+    }
+
+    /**
+     * Define os valores de localizadores que nunca serão encontrados ('no such element').
+     *
+     * @param locators valores dos localizadores (id, xpath, accessibility id...)
+     * @return AppiumStubServer
+     */
+    public AppiumStubServer withAbsentLocators(String... locators) {
+        absentLocators.addAll(Arrays.asList(locators));
+        return this;
+    }
+
+    /**
+     * Define a quantidade de nós do page source retornado.
+     *
+     * @param nodes quantidade de nós
+     * @return AppiumStubServer
+     */
+    public AppiumStubServer withPageSourceNodes(int nodes) {
+        this.pageSourceNodes = nodes;
+        return this;
+    }
+
+    /**
+     * Inicia o servidor em uma porta livre do localhost.
+     *
+     * @return AppiumStubServer
+     */
+    public AppiumStubServer start() {
+        try {
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            ImageIO.write(BenchmarkFixtures.screenshot(BenchmarkFixtures.SCREEN_WIDTH, BenchmarkFixtures.SCREEN_HEIGHT), "png", png);
+            screenshotBase64 = Base64.getEncoder().encodeToString(png.toByteArray());
+
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+            executor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "appium-stub-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            server.setExecutor(executor);
+            server.createContext("/", this::handle);
+            server.start();
+            logger.info("Appium stub iniciado em {}", getUrl());
+            return this;
+        } catch (IOException e) {
+            throw new AutomationException("Falha ao iniciar o Appium stub - [%s]", e.getMessage());
+        }
+    }
+
+    public String getUrl() {
+        return String.format("http://127.0.0.1:%d", server.getAddress().getPort());
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Retorna a quantidade de requisições recebidas por comando (ex.: 'POST /element').
+     *
+     * @return Map
+     */
+    public Map<String, Long> getCommandCount() {
+        Map<String, Long> count = new TreeMap<>();
+        commandCount.forEach((command, adder) -> count.put(command, adder.sum()));
+        return count;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            logger.info("Appium stub finalizado: requisições={}, falhas={}, comandos={}", requests.get(), failures.get(), getCommandCount());
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().replaceAll("^/(wd/hub/)?", "").split("/");
+            JsonObject body = readBody(exchange);
+            requests.incrementAndGet();
+
+            if (path.length == 1 && path[0].equals("status")) {
+                count("GET /status");
+                respond(exchange, 200, status());
+                return;
+            }
+            if (path.length == 0 || !path[0].equals("session")) {
+                respondError(exchange, 404, "unknown command", "Comando não suportado: " + method + " " + exchange.getRequestURI());
+                return;
+            }
+            if (path.length == 1 && method.equals("POST")) {
+                count("POST /session");
+                respond(exchange, 200, newSession(body));
+                return;
+            }
+
+            StubSession session = sessions.get(path[1]);
+            if (session == null) {
+                respondError(exchange, 404, "invalid session id", "Sessão não encontrada: " + path[1]);
+                return;
+            }
+            if (path.length == 2 && method.equals("DELETE")) {
+                count("DELETE /session");
+                sessions.remove(path[1]);
+                respond(exchange, 200, JsonNull.INSTANCE);
+                return;
+            }
+
+            String elementId = null;
+            StringBuilder command = new StringBuilder(method);
+            for (int i = 2; i < path.length; i++) {
+                if (i == 3 && path[2].equals("element") && session.elements.containsKey(path[3])) {
+                    elementId = path[3];
+                    command.append("/:id");
+                } else {
+                    command.append(i == 2 ? " /" : "/").append(path[i]);
+                }
+            }
+            String name = command.toString();
+            count(name);
+            simulateLatency();
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                failures.incrementAndGet();
+                respondError(exchange, 500, "unknown error", "Falha simulada pelo Appium stub");
+                return;
+            }
+            dispatch(exchange, session, name, elementId, body);
+        } catch (Exception e) {
+            respondError(exchange, 500, "unknown error", String.valueOf(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void dispatch(HttpExchange exchange, StubSession session, String command, String elementId, JsonObject body) throws IOException {
+        switch (command) {
+            case "POST /element":
+            case "POST /element/:id/element":
+                String found = findElement(session, body);
+                if (found == null) {
+                    respondError(exchange, 404, "no such element", "Elemento não encontrado: " + body);
+                } else {
+                    respond(exchange, 200, elementReference(found));
+                }
+                return;
+            case "POST /elements":
+            case "POST /element/:id/elements":
+                JsonArray elements = new JsonArray();
+                String element = findElement(session, body);
+                if (element != null) {
+                    elements.add(elementReference(element));
+                }
+                respond(exchange, 200, elements);
+                return;
+            case "POST /element/:id/click":
+            case "POST /element/:id/clear":
+                if (command.endsWith("clear")) {
+                    session.values.remove(elementId);
+                }
+                respond(exchange, 200, JsonNull.INSTANCE);
+                return;
+            case "POST /element/:id/value":
+                String text = body.has("text") ? body.get("text").getAsString() : "";
+                session.values.merge(elementId, text, String::concat);
+                respond(exchange, 200, JsonNull.INSTANCE);
+                return;
+            case "GET /element/:id/text":
+            case "GET /element/:id/attribute/text":
+                respond(exchange, 200, new JsonPrimitive(session.values.getOrDefault(elementId, session.elements.get(elementId))));
+                return;
+            case "GET /element/:id/displayed":
+            case "GET /element/:id/enabled":
+                respond(exchange, 200, new JsonPrimitive(true));
+                return;
+            case "GET /element/:id/selected":
+                respond(exchange, 200, new JsonPrimitive(false));
+                return;
+            case "GET /element/:id/name":
+                respond(exchange, 200, new JsonPrimitive("android.widget.TextView"));
+                return;
+            case "GET /element/:id/rect":
+                respond(exchange, 200, rect(session.elementIndex(elementId)));
+                return;
+            case "GET /element/:id/screenshot":
+            case "GET /screenshot":
+                respond(exchange, 200, new JsonPrimitive(screenshotBase64));
+                return;
+            case "GET /source":
+                respond(exchange, 200, new JsonPrimitive(pageSource()));
+                return;
+            case "GET /contexts":
+                JsonArray contexts = new JsonArray();
+                contexts.add("NATIVE_APP");
+                contexts.add("FLUTTER");
+                respond(exchange, 200, contexts);
+                return;
+            case "GET /context":
+                respond(exchange, 200, new JsonPrimitive(session.context));
+                return;
+            case "POST /context":
+                session.context = body.get("name").getAsString();
+                respond(exchange, 200, JsonNull.INSTANCE);
+                return;
+            case "GET /orientation":
+                respond(exchange, 200, new JsonPrimitive(session.orientation));
+                return;
+            case "POST /orientation":
+                session.orientation = body.get("orientation").getAsString();
+                respond(exchange, 200, JsonNull.INSTANCE);
+                return;
+            case "GET /window/rect":
+            case "GET /window/current/size":
+                JsonObject window = new JsonObject();
+                window.addProperty("x", 0);
+                window.addProperty("y", 0);
+                window.addProperty("width", BenchmarkFixtures.SCREEN_WIDTH);
+                window.addProperty("height", BenchmarkFixtures.SCREEN_HEIGHT);
+                respond(exchange, 200, window);
+                return;
+            case "GET /timeouts":
+                respond(exchange, 200, session.timeouts);
+                return;
+            case "POST /timeouts":
+                body.entrySet().forEach(entry -> session.timeouts.add(entry.getKey(), entry.getValue()));
+                respond(exchange, 200, JsonNull.INSTANCE);
+                return;
+            case "POST /actions":
+            case "DELETE /actions":
+            case "POST /appium/device/terminate_app":
+            case "POST /appium/device/activate_app":
+            case "POST /appium/device/hide_keyboard":
+                respond(exchange, 200, command.endsWith("terminate_app") ? new JsonPrimitive(true) : JsonNull.INSTANCE);
+                return;
+            case "POST /appium/device/app_state":
+                respond(exchange, 200, new JsonPrimitive(4));
+                return;
+            case "POST /execute/sync":
+            case "POST /execute/async":
+                executeScript(exchange, session, body);
+                return;
+            default:
+                respondError(exchange, 404, "unknown command", "Comando não suportado pelo Appium stub: " + command);
+        }
+    }
+
+    private void executeScript(HttpExchange exchange, StubSession session, JsonObject body) throws IOException {
+        String script = body.has("script") ? body.get("script").getAsString() : "";
+        if (script.startsWith("flutter:waitForAbsent")) {
+            respond(exchange, 200, JsonNull.INSTANCE);
+        } else if (script.startsWith("flutter:waitFor")) {
+            respond(exchange, 200, JsonNull.INSTANCE);
+        } else if (script.startsWith("flutter:getText")) {
+            respond(exchange, 200, new JsonPrimitive("texto"));
+        } else if (script.startsWith("mobile: getClipboard")) {
+            respond(exchange, 200, new JsonPrimitive(session.clipboard));
+        } else if (script.startsWith("mobile: setClipboard")) {
+            session.clipboard = firstArgument(body, "content");
+            respond(exchange, 200, JsonNull.INSTANCE);
+        } else if (script.startsWith("mobile: scroll") || script.startsWith("mobile: scrollGesture")) {
+            respond(exchange, 200, new JsonPrimitive(false));
+        } else if (script.startsWith("mobile:") || script.startsWith("flutter:")) {
+            respond(exchange, 200, JsonNull.INSTANCE);
+        } else {
+            respond(exchange, 200, new JsonPrimitive(true));
+        }
+    }
+
+    private JsonObject newSession(JsonObject body) {
+        JsonObject capabilities = new JsonObject();
+        JsonObject requested = body.has("capabilities") ? body.getAsJsonObject("capabilities") : new JsonObject();
+        if (requested.has("alwaysMatch")) {
+            requested.getAsJsonObject("alwaysMatch").entrySet().forEach(e -> capabilities.add(e.getKey(), e.getValue()));
+        }
+        if (requested.has("firstMatch") && requested.getAsJsonArray("firstMatch").size() > 0) {
+            requested.getAsJsonArray("firstMatch").get(0).getAsJsonObject().entrySet().forEach(e -> capabilities.add(e.getKey(), e.getValue()));
+        }
+        if (!capabilities.has("platformName")) {
+            capabilities.addProperty("platformName", "Android");
+        }
+
+        String sessionId = UUID.randomUUID().toString();
+        sessions.put(sessionId, new StubSession());
+        JsonObject value = new JsonObject();
+        value.addProperty("sessionId", sessionId);
+        value.add("capabilities", capabilities);
+        return value;
+    }
+
+    private String findElement(StubSession session, JsonObject body) {
+        String using = body.has("using") ? body.get("using").getAsString() : "";
+        String locator = body.has("value") ? body.get("value").getAsString() : "";
+        if (absentLocators.contains(locator)) {
+            return null;
+        }
+        return session.elementFor(using + "=" + locator, locator);
+    }
+
+    private static JsonObject elementReference(String elementId) {
+        JsonObject reference = new JsonObject();
+        reference.addProperty("element-6066-11e4-a52e-4f735466cecf", elementId);
+        reference.addProperty("ELEMENT", elementId);
+        return reference;
+    }
+
+    private static JsonObject rect(int index) {
+        JsonObject rect = new JsonObject();
+        rect.addProperty("x", 54);
+        rect.addProperty("y", 200 + (index % 20) * 100);
+        rect.addProperty("width", BenchmarkFixtures.SCREEN_WIDTH - 108);
+        rect.addProperty("height", 96);
+        return rect;
+    }
+
+    private String pageSource() {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><hierarchy index=\"0\" class=\"hierarchy\" rotation=\"0\" width=\"1080\" height=\"2400\">");
+        xml.append("<android.widget.FrameLayout index=\"0\" package=\"br.com.exemplo.app\" class=\"android.widget.FrameLayout\" bounds=\"[0,0][1080,2400]\">");
+        for (int i = 0; i < pageSourceNodes; i++) {
+            int top = 200 + (i % 20) * 100;
+            xml.append(String.format("<android.widget.TextView index=\"%d\" package=\"br.com.exemplo.app\" class=\"android.widget.TextView\" "
+                    + "text=\"Item %d\" resource-id=\"br.com.exemplo.app:id/item_%d\" content-desc=\"item %d\" clickable=\"true\" "
+                    + "displayed=\"true\" bounds=\"[54,%d][1026,%d]\" />", i, i, i, i, top, top + 96));
+        }
+        return xml.append("</android.widget.FrameLayout></hierarchy>").toString();
+    }
+
+    private static JsonObject status() {
+        JsonObject value = new JsonObject();
+        value.addProperty("ready", true);
+        value.addProperty("message", "Appium stub");
+        return value;
+    }
+
+    private static String firstArgument(JsonObject body, String key) {
+        if (body.has("args") && body.getAsJsonArray("args").size() > 0) {
+            JsonElement argument = body.getAsJsonArray("args").get(0);
+            if (argument.isJsonObject() && argument.getAsJsonObject().has(key)) {
+                return argument.getAsJsonObject().get(key).getAsString();
+            }
+        }
+        return "";
+    }
+
+    private void count(String command) {
+        commandCount.computeIfAbsent(command, c -> new LongAdder()).increment();
+    }
+
+    private void simulateLatency() {
+        long millis = latency.toMillis();
+        long jitter = latencyJitter.toMillis();
+        if (jitter > 0) {
+            millis += ThreadLocalRandom.current().nextLong(jitter + 1);
+        }
+        if (millis > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static JsonObject readBody(HttpExchange exchange) throws IOException {
+        try (InputStream input = exchange.getRequestBody()) {
+            String body = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            if (body.isBlank()) {
+                return new JsonObject();
+            }
+            JsonElement json = JsonParser.parseString(body);
+            return json.isJsonObject() ? json.getAsJsonObject() : new JsonObject();
+        }
+    }
+
+    private static void respondError(HttpExchange exchange, int status, String error, String message) throws IOException {
+        JsonObject value = new JsonObject();
+        value.addProperty("error", error);
+        value.addProperty("message", message);
+        value.addProperty("stacktrace", "");
+        respond(exchange, status, value);
+    }
+
+    private static void respond(HttpExchange exchange, int status, JsonElement value) throws IOException {
+        JsonObject response = new JsonObject();
+        response.add("value", value);
+        byte[] bytes = response.toString().getBytes(StandardCharsets.UTF_8);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Estado de uma sessão simulada: elementos localizados, textos digitados, contexto e orientação.
+     */
+    private static final class StubSession {
+        private final Map<String, String> locators = new ConcurrentHashMap<>();
+        private final Map<String, String> elements = new ConcurrentHashMap<>();
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+        private final JsonObject timeouts = new JsonObject();
+        private volatile String context = "NATIVE_APP";
+        private volatile String orientation = "PORTRAIT";
+        private volatile String clipboard = "";
+
+        private StubSession() {
+            timeouts.addProperty("implicit", 0);
+            timeouts.addProperty("pageLoad", 300000);
+            timeouts.addProperty("script", 30000);
+        }
+
+        private String elementFor(String locator, String text) {
+            return locators.computeIfAbsent(locator, key -> {
+                String elementId = UUID.randomUUID().toString();
+                elements.put(elementId, text);
+                return elementId;
+            });
+        }
+
+        private int elementIndex(String elementId) {
+            return Math.abs(elementId.hashCode());
+        }
+    }
+}
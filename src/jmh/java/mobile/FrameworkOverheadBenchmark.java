@@ -0,0 +1,88 @@
+package mobile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead do framework nas ações de tela de {@link MobileBaseActions} contra o {@link AppiumStubServer}.
+ * Com latência zero no stub, o tempo medido é o custo do próprio framework (proxies do PageFactory,
+ * serialização, HTTP local e esperas). Cada thread JMH abre a sua própria sessão; para medir a
+ * escalabilidade execute com várias threads, ex.: -Djmh.args="FrameworkOverheadBenchmark -t 200".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrameworkOverheadBenchmark {
+
+    @State(Scope.Thread)
+    public static class ScreenState {
+        StubScreen screen;
+
+        @Setup(Level.Trial)
+        public void openSession(StubEnvironment environment) {
+            Mobile.setPlatformName(MobilePlatform.ANDROID);
+            Mobile.getDriver();
+            screen = new StubScreen();
+        }
+
+        @TearDown(Level.Trial)
+        public void closeSession() {
+            Mobile.closeDriver();
+            DriverRegistry.release();
+        }
+    }
+
+    @Benchmark
+    public boolean isView(ScreenState state) {
+        return state.screen.isView();
+    }
+
+    @Benchmark
+    public void click(ScreenState state) {
+        state.screen.clickLogin();
+    }
+
+    @Benchmark
+    public void setText(ScreenState state) {
+        state.screen.typeUser("usuario.benchmark");
+    }
+
+    @Benchmark
+    public String getText(ScreenState state) {
+        return state.screen.getTitle();
+    }
+
+    @Benchmark
+    public void waitDisappear(ScreenState state) {
+        state.screen.waitLoading();
+    }
+
+    @Benchmark
+    public void scroll(ScreenState state) {
+        state.screen.scroll(true);
+    }
+
+    @Benchmark
+    public String pageSource(ScreenState state) {
+        return Mobile.getDriver().getPageSource();
+    }
+
+    @Benchmark
+    public byte[] screenshot(ScreenState state) {
+        return Mobile.getScreenShot();
+    }
+}
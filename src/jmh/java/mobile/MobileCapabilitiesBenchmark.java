@@ -0,0 +1,41 @@
+package mobile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.BenchmarkFixtures;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da criação de {@link MobileCapabilities}, que lê cada chave nos arquivos de propriedades do projeto e do framework.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MobileCapabilitiesBenchmark {
+
+    @Param({"ANDROID", "IOS"})
+    public MobilePlatform platform;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.prepareProjectDir();
+    }
+
+    @Benchmark
+    public MobileCapabilities newMobileCapabilities() {
+        return new MobileCapabilities(platform);
+    }
+}
@@ -0,0 +1,63 @@
+package mobile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.BenchmarkFixtures;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do pré-processamento e do OCR das capturas de tela em {@link MobileBaseActions}.
+ * O OCR depende do Tesseract nativo e do 'por.traineddata' nos recursos 'drivers/tessdata'; os motores do
+ * {@link OcrEngines} são reutilizados entre as iterações, então a medição não inclui a carga do modelo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OcrBenchmark {
+
+    @Param({"1080x2400", "720x1600"})
+    public String resolution;
+
+    private BufferedImage screenshot;
+    private BufferedImage preprocessed;
+
+    @Setup
+    public void setup() {
+        String[] size = resolution.split("x");
+        screenshot = BenchmarkFixtures.screenshot(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+        preprocessed = MobileBaseActions.preprocessImage(screenshot);
+    }
+
+    @Benchmark
+    public BufferedImage preprocessImage() {
+        return MobileBaseActions.preprocessImage(screenshot);
+    }
+
+    @Benchmark
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 5)
+    public String performOCR() {
+        return MobileBaseActions.performOCROnScreenshot(preprocessed);
+    }
+
+    @Benchmark
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 3, time = 5)
+    public String preprocessAndOCR() {
+        return MobileBaseActions.performOCROnScreenshot(MobileBaseActions.preprocessImage(screenshot));
+    }
+}
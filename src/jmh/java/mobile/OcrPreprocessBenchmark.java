@@ -0,0 +1,75 @@
+package mobile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.BenchmarkFixtures;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.RescaleOp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o pré-processamento das capturas de tela do {@link OcrPreprocessor} com a implementação anterior
+ * (Graphics2D, RescaleOp e getRGB/setRGB por pixel), em uma captura de 1080x2400.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OcrPreprocessBenchmark {
+
+    @Param({"FIXED", "OTSU", "ADAPTIVE"})
+    public String threshold;
+
+    @Param({"1", "2"})
+    public int downscale;
+
+    private OcrPreprocessor.Threshold mode;
+    private BufferedImage screenshot;
+
+    @Setup
+    public void setup() {
+        mode = OcrPreprocessor.Threshold.valueOf(threshold);
+        screenshot = BenchmarkFixtures.screenshot(1080, 2400);
+    }
+
+    @Benchmark
+    public BufferedImage raster() {
+        return OcrPreprocessor.process(screenshot, mode, downscale);
+    }
+
+    @Benchmark
+    public BufferedImage legacy() {
+        BufferedImage grayscaleImage = new BufferedImage(screenshot.getWidth(), screenshot.getHeight(),
+                BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = grayscaleImage.createGraphics();
+        graphics.drawImage(screenshot, 0, 0, null);
+        graphics.dispose();
+
+        RescaleOp rescaleOp = new RescaleOp(1.5f, 0, null);
+        rescaleOp.filter(grayscaleImage, grayscaleImage);
+
+        for (int y = 0; y < grayscaleImage.getHeight(); y++) {
+            for (int x = 0; x < grayscaleImage.getWidth(); x++) {
+                int rgb = grayscaleImage.getRGB(x, y);
+                int gray = (rgb >> 16) & 0xff;
+                gray = gray > 128 ? 255 : 0;
+                rgb = (gray << 16) | (gray << 8) | gray;
+                grayscaleImage.setRGB(x, y, rgb);
+            }
+        }
+        return grayscaleImage;
+    }
+}
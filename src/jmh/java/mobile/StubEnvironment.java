@@ -0,0 +1,46 @@
+package mobile;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import utils.BenchmarkFixtures;
+
+import java.time.Duration;
+
+/**
+ * Estado compartilhado pelos benchmarks que utilizam o {@link AppiumStubServer}: inicia o servidor e aponta
+ * a propriedade 'mobile.appium.url' do projeto temporário para ele antes da carga de {@link Mobile}.
+ */
+@State(Scope.Benchmark)
+public class StubEnvironment {
+
+    @Param({"0"})
+    public int latencyMillis;
+
+    @Param({"0"})
+    public int latencyJitterMillis;
+
+    @Param({"0.0"})
+    public double failureRate;
+
+    AppiumStubServer server;
+
+    @Setup(Level.Trial)
+    public void start() {
+        BenchmarkFixtures.prepareProjectDir();
+        server = new AppiumStubServer()
+                .withLatency(Duration.ofMillis(latencyMillis), Duration.ofMillis(latencyJitterMillis))
+                .withFailureRate(failureRate)
+                .withAbsentLocators(StubScreen.ABSENT_ID)
+                .start();
+        BenchmarkFixtures.setProjectProperty("mobile.appium.url", server.getUrl());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        server.close();
+    }
+}
@@ -0,0 +1,56 @@
+package mobile;
+
+import io.appium.java_client.pagefactory.AndroidFindBy;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+
+/**
+ * Tela utilizada nos benchmarks com o {@link AppiumStubServer}.
+ */
+public class StubScreen extends MobileBaseActions {
+
+    static final String ABSENT_ID = "br.com.exemplo.app:id/carregando";
+
+    @AndroidFindBy(id = "br.com.exemplo.app:id/titulo")
+    private WebElement title;
+
+    @AndroidFindBy(id = "br.com.exemplo.app:id/usuario")
+    private WebElement user;
+
+    @AndroidFindBy(id = "br.com.exemplo.app:id/entrar")
+    private WebElement login;
+
+    @AndroidFindBy(id = ABSENT_ID)
+    private WebElement loading;
+
+    public StubScreen() {
+        super(Duration.ofSeconds(2));
+    }
+
+    @Override
+    public boolean isView() {
+        return isView(title);
+    }
+
+    public void login(String userName) {
+        setText(userName, user);
+        click(login);
+    }
+
+    public String getTitle() {
+        return getText(title);
+    }
+
+    public void waitLoading() {
+        waitDisappear(loading, Duration.ofSeconds(5), EXCEPTION);
+    }
+
+    public void clickLogin() {
+        click(login);
+    }
+
+    public void typeUser(String userName) {
+        setText(userName, user);
+    }
+}
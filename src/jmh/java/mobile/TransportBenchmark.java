@@ -0,0 +1,78 @@
+package mobile;
+
+import io.appium.java_client.android.AndroidDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.http.HttpClient;
+import utils.BenchmarkFixtures;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do transporte HTTP entre o driver e o servidor Appium, comparando as implementações de cliente
+ * e a compressão gzip configuradas em {@link AppiumHttpClientFactory}, com page sources de tamanhos diferentes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransportBenchmark {
+
+    @Param({"default", "jdk-http-client"})
+    public String client;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    @Param({"60", "3000"})
+    public int pageSourceNodes;
+
+    private AppiumStubServer server;
+    private AndroidDriver driver;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkFixtures.prepareProjectDir();
+        server = new AppiumStubServer().withPageSourceNodes(pageSourceNodes).start();
+        HttpClient.Factory delegate = client.equals("default") ? HttpClient.Factory.createDefault() : HttpClient.Factory.create(client);
+        AppiumHttpClientFactory factory = new AppiumHttpClientFactory(delegate, Duration.ofSeconds(10), Duration.ofSeconds(60), gzip);
+
+        DesiredCapabilities cap = new DesiredCapabilities();
+        cap.setCapability("platformName", "Android");
+        cap.setCapability("appium:automationName", "UiAutomator2");
+        driver = new AndroidDriver(new InstrumentedCommandExecutor(new URL(server.getUrl()), factory), cap);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        driver.quit();
+        server.close();
+    }
+
+    @Benchmark
+    public String pageSource() {
+        return driver.getPageSource();
+    }
+
+    @Benchmark
+    public void findAndClick() {
+        driver.findElement(By.id("br.com.exemplo.app:id/entrar")).click();
+    }
+}
@@ -0,0 +1,121 @@
+package utils;
+
+import exceptions.AutomationException;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Massa de dados dos benchmarks JMH. Monta um diretório de projeto temporário com os arquivos de
+ * 'src/jmh/resources/fixtures' na estrutura esperada pelos loaders ('src/test/resources') e gera
+ * capturas de tela sintéticas, permitindo executar os benchmarks sem dispositivo ou Appium.
+ */
+public final class BenchmarkFixtures {
+
+    public static final int SCREEN_WIDTH = 1080;
+    public static final int SCREEN_HEIGHT = 2400;
+
+    private static final String[] FIXTURES = {"configuration.properties", "massa.yaml", "json/massa.json"};
+    private static final String[] SCREEN_LINES = {"Bem-vindo", "Saldo disponível", "R$ 1.500,75", "Transferir",
+            "Pagar conta", "Extrato", "Cartões", "Investimentos", "Configurações", "Sair"};
+
+    private static Path projectDir;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Cria o diretório de projeto com as fixtures e o define como 'user.dir'.
+     *
+     * @return diretório raiz do projeto temporário
+     */
+    public static synchronized Path prepareProjectDir() {
+        if (projectDir != null) {
+            return projectDir;
+        }
+        try {
+            Path dir = Files.createTempDirectory("base-mobile-jmh");
+            Path resources = dir.resolve("src/test/resources");
+            for (String fixture : FIXTURES) {
+                Path target = resources.resolve(fixture);
+                Files.createDirectories(target.getParent());
+                try (InputStream input = BenchmarkFixtures.class.getClassLoader().getResourceAsStream("fixtures/" + fixture)) {
+                    if (input == null) {
+                        throw new AutomationException("Fixture '%s' não encontrada no classpath", fixture);
+                    }
+                    Files.copy(input, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            System.setProperty("user.dir", dir.toString());
+            projectDir = dir;
+            return dir;
+        } catch (IOException e) {
+            throw new AutomationException(e);
+        }
+    }
+
+    /**
+     * Define uma propriedade no 'configuration.properties' do projeto temporário. Deve ser chamado antes
+     * do carregamento das classes que leem a propriedade em campos estáticos (ex.: 'mobile.appium.url' em Mobile).
+     *
+     * @param key   chave da propriedade
+     * @param value valor da propriedade
+     */
+    public static synchronized void setProjectProperty(String key, String value) {
+        Path file = resolve("configuration.properties");
+        try {
+            Files.write(file, String.format("%n%s=%s%n", key, value).getBytes(StandardCharsets.ISO_8859_1), StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new AutomationException(e);
+        }
+    }
+
+    /**
+     * Retorna o caminho de uma fixture dentro do diretório de projeto temporário.
+     *
+     * @param fixture nome da fixture (ex.: 'massa.yaml')
+     * @return Path
+     */
+    public static Path resolve(String fixture) {
+        return prepareProjectDir().resolve("src/test/resources").resolve(fixture);
+    }
+
+    /**
+     * Gera uma captura de tela sintética, em cores, com linhas de texto semelhantes às de um aplicativo.
+     *
+     * @param width  largura da imagem
+     * @param height altura da imagem
+     * @return BufferedImage
+     */
+    public static BufferedImage screenshot(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        graphics.setColor(new Color(245, 245, 250));
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(new Color(0, 82, 155));
+        graphics.fillRect(0, 0, width, height / 12);
+
+        int lineHeight = height / (SCREEN_LINES.length + 2);
+        graphics.setFont(new Font(Font.SANS_SERIF, Font.BOLD, Math.max(12, lineHeight / 3)));
+        for (int i = 0; i < SCREEN_LINES.length; i++) {
+            int y = lineHeight * (i + 2);
+            graphics.setColor(i % 2 == 0 ? new Color(230, 232, 240) : Color.WHITE);
+            graphics.fillRect(width / 20, y - lineHeight / 2, width - width / 10, lineHeight - 8);
+            graphics.setColor(new Color(40, 40, 40));
+            graphics.drawString(SCREEN_LINES[i], width / 10, y);
+        }
+        graphics.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,57 @@
+package utils;
+
+import com.google.gson.JsonObject;
+import io.cucumber.datatable.DataTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de {@link Reflections#findClassByName(String)} e de {@link Utils#DataTableToJson(DataTable)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilsBenchmark {
+
+    @Param({"2", "20"})
+    public int dataTableRows;
+
+    private DataTable dataTable;
+
+    @Setup
+    public void setup() {
+        List<List<String>> cells = new ArrayList<>();
+        cells.add(Arrays.asList("nome", "cpf", "email", "agencia", "conta"));
+        for (int i = 0; i < dataTableRows; i++) {
+            cells.add(Arrays.asList("'Maria " + i + "'", "1234567890" + i, "maria" + i + "@exemplo.com.br", "0001", "12345-" + i));
+        }
+        dataTable = DataTable.create(cells);
+    }
+
+    @Benchmark
+    public Class<?> reflectionsFindClassByName() {
+        return Reflections.findClassByName("JsonLoader");
+    }
+
+    @Benchmark
+    public JsonObject dataTableToJson() {
+        return Utils.DataTableToJson(dataTable);
+    }
+}
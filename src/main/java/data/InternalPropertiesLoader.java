@@ -51,6 +51,18 @@ public class InternalPropertiesLoader {
         }
     }
 
+    /**
+     * Retorna o valor da chave informada ou o valor padrão caso a chave não esteja definida.
+     *
+     * @param key          chave a ser pesquisada
+     * @param defaultValue valor retornado quando a chave não existir
+     * @return String
+     */
+    public String getValue(String key, String defaultValue) {
+        String value = getValue(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
 	public void setValue(String key, String value) {
 		projectProperties.setValue(key, value);
 		
@@ -6,31 +6,52 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.RemoteWebDriver;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 public class PageFactoryFlutter {
 
+    private static final Map<Class<?>, List<Field>> flutterFields = new ConcurrentHashMap<>();
+
     public static void initElements(RemoteWebDriver driver, Object pageObject){
-        Class<?> pageClass = pageObject.getClass();
-        Field[] fields = pageClass.getDeclaredFields();
+        for(Field field : getFlutterFields(pageObject.getClass())){
+            FlutterElement flutterElement = buildFindByFlutter(field.getAnnotation(FlutterFindBy.class), driver);
+            try {
+                field.set(pageObject, flutterElement);
+            }catch (Exception e){
+                throw new RuntimeException(e.getMessage());
+            }
+        }
+    }
 
-        for(Field field : fields){
-            FlutterFindBy flutterFindBy = field.getAnnotation(FlutterFindBy.class);
-            if(flutterFindBy != null){
-                assertValidFindByFlutter(flutterFindBy);
-                if(field.getType() == FlutterElement.class || field.getType() == WebElement.class){
-                    FlutterElement flutterElement = buildFindByFlutter(flutterFindBy, driver);
-                    field.setAccessible(true);
-                    try {
-                        field.set(pageObject, flutterElement);
-                    }catch (Exception e){
-                        throw new RuntimeException(e.getMessage());
+    /**
+     * Retorna os campos anotados com @FlutterFindBy da classe. A leitura e a validação das anotações
+     * são feitas uma única vez por classe.
+     *
+     * @param pageClass classe do PageObject
+     * @return lista de campos acessíveis
+     */
+    public static List<Field> getFlutterFields(Class<?> pageClass){
+        return flutterFields.computeIfAbsent(pageClass, clazz -> {
+            List<Field> fields = new ArrayList<>();
+            for(Field field : clazz.getDeclaredFields()){
+                FlutterFindBy flutterFindBy = field.getAnnotation(FlutterFindBy.class);
+                if(flutterFindBy != null){
+                    assertValidFindByFlutter(flutterFindBy);
+                    if(field.getType() == FlutterElement.class || field.getType() == WebElement.class){
+                        field.setAccessible(true);
+                        fields.add(field);
                     }
                 }
             }
-        }
+            return Collections.unmodifiableList(fields);
+        });
     }
 
     private static void assertValidFindByFlutter(FlutterFindBy findByFlutter){
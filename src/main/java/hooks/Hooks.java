@@ -1,8 +1,9 @@
 package hooks;
 
 import data.InternalPropertiesLoader;
-import mobile.AppiumServer;
+import mobile.DriverRegistry;
 import mobile.Mobile;
+import mobile.SessionScope;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import io.cucumber.java.After;
@@ -14,8 +15,6 @@ public class Hooks {
 
     static final Logger logger = LogManager.getLogger(Hooks.class);
     private static boolean isTestPlanBeginning = true;
-    private static String isAppiumServer = new InternalPropertiesLoader("configuration_core.properties")
-            .getValue("mobile.appium.server");
     private static String versaoFramework = new InternalPropertiesLoader("configuration_core.properties")
             .getValue("project.version");
 
@@ -23,16 +22,20 @@ public class Hooks {
 
     private static String versaoSistema = "";
 
+    static {
+        if (SessionScope.getConfigured() != SessionScope.SCENARIO)
+            Runtime.getRuntime().addShutdownHook(new Thread(Mobile::closeAllDrivers, "appium-session-shutdown"));
+    }
+
 
     @Before(order = 01, value = "@Mobile")
     public void beforeMobile(Scenario scenario) {
         logger.info("Iniciando Objetos para Mobile");
+        DriverRegistry.bindScenario(scenario.getId());
         TestInfoGeneral.setEnviroment("Mobile");
         TestInfoGeneral.setPlatformNameByTag(scenario);
-        if (Boolean.parseBoolean(isAppiumServer))
-            AppiumServer.start();
 
-        Mobile.getDriver();
+        Mobile.prepareDriver(scenario.getUri().toString(), scenario.getSourceTagNames());
     }
 
     @After(order = 0, value = "@Mobile")
@@ -42,6 +45,8 @@ public class Hooks {
             String versaoAutomacao = pLoader.getValue("project.system.version");
         }
         logger.info("Finalizando Objetos para Mobile");
-        Mobile.closeDriver();
+        if (SessionScope.getConfigured() == SessionScope.SCENARIO)
+            Mobile.closeDriver();
+        DriverRegistry.unbindScenario();
     }
 }
@@ -3,16 +3,77 @@ import br.com.dimensa.report.CucumberReport;
 import io.cucumber.plugin.ConcurrentEventListener;
 import io.cucumber.plugin.event.EventHandler;
 import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
 import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStep;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+import mobile.MetricsRegistry;
+import mobile.Mobile;
+import mobile.OcrEngines;
+import mobile.SessionPrewarmer;
+import utils.Tracer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TestEventHandlerPlugin implements ConcurrentEventListener{
 
+	private final Map<UUID, Long> spanStarts = new ConcurrentHashMap<>();
+
 	@Override
 	public void setEventPublisher(EventPublisher publisher) {
+		if (Tracer.isActive()) {
+			publisher.registerHandlerFor(TestCaseStarted.class, scenarioStarted);
+			publisher.registerHandlerFor(TestCaseFinished.class, scenarioFinished);
+			publisher.registerHandlerFor(TestStepStarted.class, stepStarted);
+			publisher.registerHandlerFor(TestStepFinished.class, stepFinished);
+		}
 		publisher.registerHandlerFor(TestRunFinished.class, teardown);
 	}
-	
+
+	private EventHandler<TestCaseStarted> scenarioStarted = event ->
+		spanStarts.put(event.getTestCase().getId(), Tracer.nowMicros());
+
+	private EventHandler<TestCaseFinished> scenarioFinished = event -> {
+		Long start = spanStarts.remove(event.getTestCase().getId());
+		if (start != null) {
+			Tracer.complete("scenario", event.getTestCase().getName(), start, event.getResult().getStatus() == Status.FAILED);
+		}
+	};
+
+	private EventHandler<TestStepStarted> stepStarted = event ->
+		spanStarts.put(event.getTestStep().getId(), Tracer.nowMicros());
+
+	private EventHandler<TestStepFinished> stepFinished = event -> {
+		Long start = spanStarts.remove(event.getTestStep().getId());
+		if (start != null) {
+			Tracer.complete("step", stepName(event.getTestStep()), start, event.getResult().getStatus() == Status.FAILED);
+		}
+	};
+
 	private EventHandler<TestRunFinished> teardown = event -> {
+		Mobile.closeAllDrivers();
+		SessionPrewarmer.shutdown();
+		OcrEngines.shutdown();
+		MetricsRegistry.logSummaries();
+		Tracer.export();
 		CucumberReport.generate();
 	};
+
+	private static String stepName(TestStep testStep) {
+		if (testStep instanceof PickleStepTestStep) {
+			PickleStepTestStep pickleStep = (PickleStepTestStep) testStep;
+			return pickleStep.getStep().getKeyword() + pickleStep.getStep().getText();
+		}
+		if (testStep instanceof HookTestStep) {
+			return "@" + ((HookTestStep) testStep).getHookType().name();
+		}
+		return testStep.getCodeLocation();
+	}
 }
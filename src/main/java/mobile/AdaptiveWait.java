@@ -0,0 +1,109 @@
+package mobile;
+
+import data.InternalPropertiesLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import utils.Tracer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Motor de espera do framework. A condição é avaliada com implicit wait zero no Appium Server e o intervalo
+ * entre as verificações cresce exponencialmente, do piso ao teto configurados: condições satisfeitas rapidamente
+ * são detectadas em poucos milissegundos e esperas longas não sobrecarregam o servidor com verificações.
+ * Configurado pelas propriedades do arquivo configuration_core.properties:
+ * <ul>
+ *     <li>mobile.wait.poll.floor - primeiro intervalo entre verificações em milissegundos (padrão 50);</li>
+ *     <li>mobile.wait.poll.ceiling - intervalo máximo entre verificações em milissegundos (padrão 500);</li>
+ *     <li>mobile.wait.poll.factor - fator de crescimento do intervalo (padrão 1.5).</li>
+ * </ul>
+ * O tempo máximo de cada espera é limitado pelo {@link Deadline} da ação em execução.
+ * Cada espera é registrada em {@link WaitMetrics} e, com o trace habilitado, como um span do {@link Tracer}.
+ */
+public final class AdaptiveWait {
+
+    static final Logger logger = LogManager.getLogger(AdaptiveWait.class);
+
+    private static final InternalPropertiesLoader pLoader = new InternalPropertiesLoader("configuration_core.properties");
+    private static final long pollFloorNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(pLoader.getValue("mobile.wait.poll.floor", "50")));
+    private static final long pollCeilingNanos = Math.max(pollFloorNanos,
+            TimeUnit.MILLISECONDS.toNanos(Long.parseLong(pLoader.getValue("mobile.wait.poll.ceiling", "500"))));
+    private static final double pollFactor = Math.max(1.0, Double.parseDouble(pLoader.getValue("mobile.wait.poll.factor", "1.5")));
+    private static final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+    private AdaptiveWait() {
+    }
+
+    /**
+     * Aguarda a condição retornar um valor diferente de null e de false. Exceções de elemento não localizado
+     * ou desatualizado (stale) são tratadas como condição não satisfeita.
+     *
+     * @param name      nome da espera, utilizado nas métricas e na mensagem de erro
+     * @param timeout   tempo máximo de espera
+     * @param condition condição avaliada a cada verificação
+     * @param <T>       tipo do valor retornado pela condição
+     * @return valor retornado pela condição
+     * @throws TimeoutException quando a condição não for satisfeita dentro do tempo máximo
+     */
+    public static <T> T until(String name, Duration timeout, Supplier<T> condition) {
+        depth.get()[0]++;
+        try (Tracer.Span span = Tracer.span("wait", name)) {
+            Mobile.setImplicitWait(Duration.ZERO);
+            long start = System.nanoTime();
+            long deadline = start + Deadline.clip(timeout).toNanos();
+            long interval = pollFloorNanos;
+            int polls = 0;
+            RuntimeException lastException = null;
+
+            while (true) {
+                polls++;
+                try {
+                    T value = condition.get();
+                    if (value != null && !Boolean.FALSE.equals(value)) {
+                        WaitMetrics.record(name, System.nanoTime() - start, polls, false);
+                        return value;
+                    }
+                } catch (NotFoundException | StaleElementReferenceException e) {
+                    lastException = e;
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    long elapsed = System.nanoTime() - start;
+                    WaitMetrics.record(name, elapsed, polls, true);
+                    span.error();
+                    throw new TimeoutException(String.format("A condição '%s' não foi satisfeita após %d ms (%d verificações)",
+                            name, TimeUnit.NANOSECONDS.toMillis(elapsed), polls), lastException);
+                }
+                sleep(Math.min(interval, remaining));
+                interval = Math.min(pollCeilingNanos, (long) (interval * pollFactor));
+            }
+        } finally {
+            depth.get()[0]--;
+        }
+    }
+
+    /**
+     * Indica se a thread atual está avaliando a condição de uma espera. Nesse caso os comandos devem ser
+     * enviados com implicit wait zero e sem esperas próprias, pois o intervalo é controlado pela espera em curso.
+     *
+     * @return boolean
+     */
+    static boolean isPolling() {
+        return depth.get()[0] > 0;
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Espera interrompida", e);
+        }
+    }
+}
@@ -15,9 +15,17 @@ public class AppInstall {
 
     private String appPath;
     private File appFile;
+    private MobileCapabilities mobileCapabilities;
+    private MobilePlatform platform;
 
     public AppInstall() {
-        appPath = MobileCapabilities.getInstance().getApp();
+        this(MobileCapabilities.getInstance(), Mobile.getPlatformName());
+    }
+
+    AppInstall(MobileCapabilities mobileCapabilities, MobilePlatform platform) {
+        this.mobileCapabilities = mobileCapabilities;
+        this.platform = platform;
+        appPath = mobileCapabilities.getApp();
         validateAppFile();
     }
 
@@ -26,7 +34,7 @@ public class AppInstall {
             File appFile = new File(appPath);
             if (!appFile.exists()) {
                 throw new RuntimeException(String.format("Não foi possível localizar o arquivo do aplicativo a ser instalado no dispositivo. " +
-                        "Verifique se a propriedade 'mobile.appium.capability.%s.app' está com o valor correto: %s", Mobile.getPlatformName().toString(), appPath));
+                        "Verifique se a propriedade 'mobile.appium.capability.%s.app' está com o valor correto: %s", platform.toString(), appPath));
             }
             this.appFile = appFile;
         }
@@ -36,7 +44,7 @@ public class AppInstall {
         if (appFile != null) {
             cap.setCapability("app", appFile.getAbsolutePath());
             cap.setCapability("appium:enforceAppInstall", true);
-            MobileCapabilities.getInstance().setNoReset(false);
+            mobileCapabilities.setNoReset(false);
             logger.info("Capability 'appium:app' definida para o aplicativo ser instalado no dispositivo. " +
                     "Arquivo do aplicativo que será instalado: " + appFile.getAbsolutePath());
         }
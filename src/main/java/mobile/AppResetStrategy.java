@@ -0,0 +1,102 @@
+package mobile;
+
+import com.google.common.base.Strings;
+import data.InternalPropertiesLoader;
+import exceptions.AutomationException;
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.InteractsWithApps;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Estratégias para devolver o aplicativo ao estado inicial entre cenários quando a sessão
+ * Appium é reaproveitada (ver {@link SessionScope}).
+ * A estratégia padrão é definida pela propriedade 'mobile.session.reset' e pode ser alterada
+ * por cenário com as tags '@reset:restart', '@reset:clear', '@reset:deeplink' e '@reset:none'.
+ */
+public enum AppResetStrategy {
+
+    /**
+     * Finaliza e reabre o aplicativo, assim como {@link Mobile#restartApplication()}.
+     */
+    RESTART {
+        @Override
+        void apply(AppiumDriver driver, String appId) {
+            ((InteractsWithApps) driver).terminateApp(appId);
+            ((InteractsWithApps) driver).activateApp(appId);
+        }
+    },
+    /**
+     * Limpa os dados do aplicativo (equivalente ao 'pm clear') e o reabre.
+     */
+    CLEAR {
+        @Override
+        void apply(AppiumDriver driver, String appId) {
+            Map<String, Object> params = new HashMap<>();
+            params.put(Mobile.getPlatformName() == MobilePlatform.ANDROID ? "appId" : "bundleId", appId);
+            ((InteractsWithApps) driver).terminateApp(appId);
+            driver.executeScript("mobile: clearApp", params);
+            ((InteractsWithApps) driver).activateApp(appId);
+        }
+    },
+    /**
+     * Navega para a tela inicial através do deep link da propriedade 'mobile.session.reset.deeplink'.
+     */
+    DEEPLINK {
+        @Override
+        void apply(AppiumDriver driver, String appId) {
+            if (Strings.isNullOrEmpty(deepLink)) {
+                throw new AutomationException("A propriedade 'mobile.session.reset.deeplink' deve ser informada para a estratégia de reset 'deeplink'");
+            }
+            Map<String, Object> params = new HashMap<>();
+            params.put("url", deepLink);
+            params.put(Mobile.getPlatformName() == MobilePlatform.ANDROID ? "package" : "bundleId", appId);
+            driver.executeScript("mobile: deepLink", params);
+        }
+    },
+    /**
+     * Mantém o aplicativo no estado em que o cenário anterior terminou.
+     */
+    NONE {
+        @Override
+        void apply(AppiumDriver driver, String appId) {
+        }
+    };
+
+    static final Logger logger = LogManager.getLogger(AppResetStrategy.class);
+
+    private static final String TAG_PREFIX = "@reset:";
+    private static final InternalPropertiesLoader pLoader = new InternalPropertiesLoader("configuration_core.properties");
+    private static final String deepLink = pLoader.getValue("mobile.session.reset.deeplink");
+    private static final AppResetStrategy configured = fromValue(pLoader.getValue("mobile.session.reset", "restart"));
+
+    abstract void apply(AppiumDriver driver, String appId);
+
+    /**
+     * Retorna a estratégia definida pelas tags do cenário ou, na ausência delas, a estratégia configurada.
+     *
+     * @param tags tags do cenário
+     * @return AppResetStrategy
+     */
+    public static AppResetStrategy fromTags(Collection<String> tags) {
+        for (String tag : tags) {
+            if (tag.toLowerCase().startsWith(TAG_PREFIX)) {
+                return fromValue(tag.substring(TAG_PREFIX.length()));
+            }
+        }
+        return configured;
+    }
+
+    static AppResetStrategy fromValue(String value) {
+        for (AppResetStrategy strategy : values()) {
+            if (strategy.name().equalsIgnoreCase(value)) {
+                return strategy;
+            }
+        }
+        throw new AutomationException("Estratégia de reset '%s' inválida. Valores aceitos: restart, clear, deeplink, none", value);
+    }
+}
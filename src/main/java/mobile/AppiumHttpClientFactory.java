@@ -0,0 +1,112 @@
+package mobile;
+
+import com.google.common.base.Strings;
+import data.InternalPropertiesLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Fábrica do cliente HTTP utilizado pelos drivers Appium criados em {@link Mobile}.
+ * Permite escolher a implementação do cliente e ajustar os timeouts e a compressão das respostas
+ * através do arquivo configuration_core.properties:
+ * <ul>
+ *     <li>mobile.appium.http.client - nome da implementação registrada no Selenium (ex.: 'jdk-http-client').
+ *     Quando ausente é utilizado o cliente padrão do Selenium;</li>
+ *     <li>mobile.appium.http.connectionTimeout - timeout de conexão em segundos (padrão 10);</li>
+ *     <li>mobile.appium.http.readTimeout - timeout de leitura de cada comando em segundos (padrão 180);</li>
+ *     <li>mobile.appium.http.gzip - solicita respostas compactadas, útil para o 'getPageSource' (padrão false).</li>
+ * </ul>
+ * O cliente 'jdk-http-client' mantém as conexões abertas (keep-alive) e as reutiliza entre os comandos da sessão.
+ */
+public class AppiumHttpClientFactory implements HttpClient.Factory {
+
+    static final Logger logger = LogManager.getLogger(AppiumHttpClientFactory.class);
+
+    private static final InternalPropertiesLoader pLoader = new InternalPropertiesLoader("configuration_core.properties");
+    private static AppiumHttpClientFactory instance;
+
+    private final HttpClient.Factory delegate;
+    private final Duration connectionTimeout;
+    private final Duration readTimeout;
+    private final boolean gzip;
+
+    public AppiumHttpClientFactory(HttpClient.Factory delegate, Duration connectionTimeout, Duration readTimeout, boolean gzip) {
+        this.delegate = delegate;
+        this.connectionTimeout = connectionTimeout;
+        this.readTimeout = readTimeout;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Retorna a fábrica configurada pelo arquivo configuration_core.properties.
+     *
+     * @return AppiumHttpClientFactory
+     */
+    public static synchronized AppiumHttpClientFactory getInstance() {
+        if (instance == null) {
+            String clientName = pLoader.getValue("mobile.appium.http.client");
+            HttpClient.Factory delegate = Strings.isNullOrEmpty(clientName) ? HttpClient.Factory.createDefault() : HttpClient.Factory.create(clientName);
+            instance = new AppiumHttpClientFactory(delegate,
+                    Duration.ofSeconds(Long.parseLong(pLoader.getValue("mobile.appium.http.connectionTimeout", "10"))),
+                    Duration.ofSeconds(Long.parseLong(pLoader.getValue("mobile.appium.http.readTimeout", "180"))),
+                    Boolean.parseBoolean(pLoader.getValue("mobile.appium.http.gzip", "false")));
+            logger.info("Cliente HTTP do Appium: {} (connectionTimeout={}s, readTimeout={}s, gzip={})",
+                    Strings.isNullOrEmpty(clientName) ? "padrão" : clientName,
+                    instance.connectionTimeout.getSeconds(), instance.readTimeout.getSeconds(), instance.gzip);
+        }
+        return instance;
+    }
+
+    @Override
+    public HttpClient createClient(ClientConfig config) {
+        ClientConfig tuned = config.connectionTimeout(connectionTimeout).readTimeout(readTimeout);
+        if (gzip) {
+            tuned = tuned.withFilter(new GzipFilter().andThen(config.filter()));
+        }
+        return delegate.createClient(tuned);
+    }
+
+    @Override
+    public void cleanupIdleClients() {
+        delegate.cleanupIdleClients();
+    }
+
+    /**
+     * Filtro que solicita respostas compactadas com gzip e as descompacta antes de entregá-las ao driver.
+     */
+    static class GzipFilter implements Filter {
+
+        @Override
+        public HttpHandler apply(HttpHandler next) {
+            return request -> {
+                request.setHeader("Accept-Encoding", "gzip");
+                HttpResponse response = next.execute(request);
+                String encoding = response.getHeader("Content-Encoding");
+                if (encoding == null || !encoding.toLowerCase().contains("gzip")) {
+                    return response;
+                }
+                try (InputStream content = new GZIPInputStream(response.getContent().get())) {
+                    byte[] body = content.readAllBytes();
+                    response.removeHeader("Content-Encoding");
+                    response.setHeader("Content-Length", String.valueOf(body.length));
+                    response.setContent(Contents.bytes(body));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return response;
+            };
+        }
+    }
+}
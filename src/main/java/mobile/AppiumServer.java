@@ -36,8 +36,11 @@ public class AppiumServer {
         return service;
     }
 
-    public static void start() {
+    public static synchronized void start() {
         logger.info("Iniciando o Appium Server " + String.format("(%s:%s)", host, port));
+        if (service != null && service.isRunning()) {
+            return;
+        }
         if (isPortAvailable(port)) {
             validateEnvironment();
             getInstance().start();
@@ -80,7 +83,7 @@ public class AppiumServer {
         }
     }
 
-    public static void stop() {
+    public static synchronized void stop() {
         if (service != null) {
             service.stop();
             logger.info("Appium Server finalizado!");
@@ -0,0 +1,23 @@
+package mobile;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Habilita o cache de referências dos elementos de uma tela (quando aplicada à classe) ou de um elemento
+ * (quando aplicada ao campo). O elemento é localizado no Appium Server no primeiro uso e a referência é
+ * reutilizada nas ações seguintes, assim como as buscas de elementos filhos (ex.: o campo EditText de um
+ * campo de texto). A referência é descartada automaticamente quando se torna desatualizada (stale), na troca
+ * de contexto, na navegação (voltar, abrir ou reiniciar o aplicativo) e na troca de driver (ver {@link ElementCache}).
+ * Indicada para telas de formulário, em que o mesmo elemento recebe várias ações seguidas.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.FIELD})
+public @interface CacheElements {
+}
@@ -0,0 +1,81 @@
+package mobile;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registra a latência de cada comando enviado ao Appium Server, agrupada pelo nome do comando W3C
+ * (findElement, click, getPageSource, executeScript flutter:waitFor...).
+ * Registrado no {@link MetricsRegistry} como 'commands': habilitado por padrão, pode ser desligado pela
+ * propriedade 'mobile.metrics.commands'.
+ */
+public final class CommandMetrics {
+
+    static final Logger logger = LogManager.getLogger(CommandMetrics.class);
+
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static final boolean isActive = MetricsRegistry.register("commands", CommandMetrics::getSummary,
+            () -> !histograms.isEmpty(), CommandMetrics::reset);
+
+    private CommandMetrics() {
+    }
+
+    public static boolean isActive() {
+        return isActive;
+    }
+
+    /**
+     * Registra a execução de um comando.
+     *
+     * @param command nome do comando
+     * @param nanos   duração em nanossegundos
+     * @param error   indica se o comando terminou em erro
+     */
+    public static void record(String command, long nanos, boolean error) {
+        if (isActive) {
+            histograms.computeIfAbsent(command, key -> new LatencyHistogram()).record(nanos, error);
+        }
+    }
+
+    /**
+     * Retorna o histograma do comando informado ou null caso o comando não tenha sido executado.
+     *
+     * @param command nome do comando
+     * @return LatencyHistogram
+     */
+    public static LatencyHistogram getHistogram(String command) {
+        return histograms.get(command);
+    }
+
+    /**
+     * Retorna o resumo das latências, ordenado pelo tempo total de cada comando.
+     *
+     * @return String
+     */
+    public static String getSummary() {
+        List<Map.Entry<String, LatencyHistogram>> entries = new ArrayList<>(histograms.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> e) -> e.getValue().getTotalMillis()).reversed());
+
+        StringBuilder summary = new StringBuilder("Latência dos comandos Appium (ms):\n");
+        summary.append(String.format("%-45s %8s %7s %10s %9s %9s %9s %9s%n", "comando", "total", "erros", "tempo", "p50", "p90", "p99", "max"));
+        for (Map.Entry<String, LatencyHistogram> entry : entries) {
+            LatencyHistogram h = entry.getValue();
+            summary.append(String.format("%-45s %8d %7d %10d %9.1f %9.1f %9.1f %9d%n", entry.getKey(), h.getCount(), h.getErrors(),
+                    h.getTotalMillis(), h.getPercentileMillis(50), h.getPercentileMillis(90), h.getPercentileMillis(99), h.getMaxMillis()));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Descarta as latências registradas.
+     */
+    public static void reset() {
+        histograms.clear();
+    }
+}
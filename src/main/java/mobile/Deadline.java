@@ -0,0 +1,85 @@
+package mobile;
+
+import java.time.Duration;
+
+/**
+ * Prazo total de uma ação da tela, propagado para as esperas e tentativas executadas dentro dela na mesma thread.
+ * Um prazo aberto dentro de outro nunca ultrapassa o prazo externo, garantindo que uma ação composta
+ * (ex.: click, que aguarda o elemento com isView) termine dentro do orçamento da ação mais externa.
+ * Deve ser utilizado com try-with-resources.
+ */
+public final class Deadline implements AutoCloseable {
+
+    private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+    private final Deadline parent;
+
+    private Deadline(long expiresAtNanos, Deadline parent) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.parent = parent;
+    }
+
+    /**
+     * Abre um prazo na thread atual, limitado pelo prazo já aberto, caso exista.
+     *
+     * @param budget tempo máximo da ação
+     * @return Deadline
+     */
+    public static Deadline start(Duration budget) {
+        Deadline parent = current.get();
+        long expiresAt = System.nanoTime() + budget.toNanos();
+        if (parent != null && parent.expiresAtNanos - expiresAt < 0) {
+            expiresAt = parent.expiresAtNanos;
+        }
+        Deadline deadline = new Deadline(expiresAt, parent);
+        current.set(deadline);
+        return deadline;
+    }
+
+    /**
+     * Retorna o prazo aberto na thread atual ou null caso não exista.
+     *
+     * @return Deadline
+     */
+    public static Deadline current() {
+        return current.get();
+    }
+
+    /**
+     * Limita o tempo informado ao tempo restante do prazo aberto na thread atual.
+     *
+     * @param timeout tempo desejado
+     * @return o menor valor entre o tempo desejado e o tempo restante do prazo
+     */
+    public static Duration clip(Duration timeout) {
+        Deadline deadline = current.get();
+        if (deadline == null) {
+            return timeout;
+        }
+        Duration remaining = deadline.remaining();
+        return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+
+    /**
+     * Retorna o tempo restante do prazo.
+     *
+     * @return Duration
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            current.remove();
+        } else {
+            current.set(parent);
+        }
+    }
+}
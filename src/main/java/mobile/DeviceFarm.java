@@ -9,9 +9,10 @@ import com.google.gson.JsonObject;
 import data.InternalPropertiesLoader;
 import exceptions.AutomationException;
 import io.restassured.RestAssured;
-import io.restassured.authentication.AuthenticationScheme;
+import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.mapper.ObjectMapperType;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -24,31 +25,56 @@ import java.util.List;
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
 
+/**
+ * Responsável pela alocação de dispositivos no Device Farm (STF). Cada sessão registrada no
+ * {@link DriverRegistry} possui a sua própria instância e, portanto, o seu próprio dispositivo.
+ */
 public class DeviceFarm {
 
     static final Logger logger = LogManager.getLogger(DeviceFarm.class);
     private String baseUri = new InternalPropertiesLoader("configuration_core.properties").getValue("mobile.deviceFarm.android.url");
     private String token = new InternalPropertiesLoader("configuration_core.properties").getValue("mobile.deviceFarm.android.token");
     private Device device;
-    private static DeviceFarm instance;
+    private RequestSpecification requestSpec;
+
+    /**
+     * Lock utilizado para que duas sessões em paralelo não selecionem o mesmo dispositivo disponível.
+     */
+    private static final Object leaseLock = new Object();
 
     private DeviceFarm() {
         setRequestConfig();
     }
 
+    /**
+     * Retorna o Device Farm da sessão vinculada à thread atual no {@link DriverRegistry}.
+     *
+     * @return DeviceFarm
+     */
     public static DeviceFarm getInstance() {
-        if (instance == null) {
-            instance = new DeviceFarm();
+        return getInstance(DriverRegistry.current());
+    }
+
+    /**
+     * Retorna o Device Farm da sessão informada.
+     *
+     * @param session sessão registrada no {@link DriverRegistry}
+     * @return DeviceFarm
+     */
+    static synchronized DeviceFarm getInstance(DriverSession session) {
+        if (session.getDeviceFarm() == null) {
+            session.setDeviceFarm(new DeviceFarm());
         }
-        return instance;
+        return session.getDeviceFarm();
     }
 
     private void setRequestConfig() {
         logger.info("Organizando configurações RestAssured.");
-        RestAssured.useRelaxedHTTPSValidation();
-        AuthenticationScheme auth = RestAssured.oauth2(token);
-        RestAssured.authentication = auth;
-        RestAssured.baseURI = baseUri;
+        requestSpec = new RequestSpecBuilder()
+                .setBaseUri(baseUri)
+                .setAuth(RestAssured.oauth2(token))
+                .setRelaxedHTTPSValidation()
+                .build();
     }
 
     public Device getDevice() {
@@ -61,7 +87,7 @@ public class DeviceFarm {
     private List<Device> getDevices() {
         JsonArray devicesJa = new JsonArray();
         try {
-            devicesJa = given().
+            devicesJa = given(requestSpec).
                     when().
                     get("/devices").
                     then().
@@ -86,7 +112,7 @@ public class DeviceFarm {
 
     private Device getDevice(String deviceSerial) {
         JsonElement deviceJe;
-        Response response = given().
+        Response response = given(requestSpec).
                 when().
                 get("/devices/{deviceSerial}", deviceSerial);
 
@@ -123,7 +149,7 @@ public class DeviceFarm {
         if (Strings.isNullOrEmpty(deviceSerial)) {
             List<Device> devices = getDevices();
             for (Device device : devices) {
-                if (isAvailableDevice(device)) {
+                if (isAvailableDevice(device) && addUserDevice(device)) {
                     return device;
                 }
             }
@@ -131,7 +157,7 @@ public class DeviceFarm {
         }
 
         Device device = getDevice(deviceSerial);
-        if (isAvailableDevice(device)) {
+        if (isAvailableDevice(device) && addUserDevice(device)) {
             return device;
         }
         throw new AutomationException(String.format("O dispositivo com o serial '%s' não está disponível.", device.getSerial()));
@@ -154,7 +180,7 @@ public class DeviceFarm {
         payload.addProperty("timeout", 900000);
 
         try {
-            given().
+            given(requestSpec).
                     contentType("application/json").
                     body(payload.toString()).
                     when().
@@ -170,7 +196,7 @@ public class DeviceFarm {
 
     private String remoteConnectUserDeviceBySerial(String deviceSerial) {
         try {
-            return given().
+            return given(requestSpec).
                     contentType("application/json").
                     when().
                     post("user/devices/{deviceSerial}/remoteConnect", deviceSerial).
@@ -185,13 +211,14 @@ public class DeviceFarm {
     }
 
     private Device connectToDevice() {
-        Device device = getAvailableDevice();
+        Device device;
+        synchronized (leaseLock) {
+            device = getAvailableDevice();
+        }
         logger.info("Dispositivo mobile selecionado: " + device.getSerial());
 
-        if (addUserDevice(device)) {
-            String remoteConnectUrl = remoteConnectUserDeviceBySerial(device.getSerial());
-            device.setRemoteConnectUrl(remoteConnectUrl);
-        }
+        String remoteConnectUrl = remoteConnectUserDeviceBySerial(device.getSerial());
+        device.setRemoteConnectUrl(remoteConnectUrl);
         connectAdbToDevice(device);
 
         return device;
@@ -213,9 +240,7 @@ public class DeviceFarm {
 
     private void disconnectDevice() {
         try {
-            RestAssured.reset();
-            setRequestConfig();
-            given().
+            given(requestSpec).
                     contentType("application/json").
                     when().
                     delete("/user/devices/{deviceSerial}", this.device.getSerial()).
@@ -231,9 +256,10 @@ public class DeviceFarm {
 
     private void disconnectAdb() {
         try {
-            logger.info("Executando comando 'adb disconnect'");
-            this.executeCommand("adb disconnect");
-            logger.info("Comando 'adb disconnect' executado com sucesso.");
+            String command = String.format("adb disconnect %s", this.device.getRemoteConnectUrl());
+            logger.info(String.format("Executando comando '%s'", command));
+            this.executeCommand(command);
+            logger.info(String.format("Comando '%s' executado com sucesso.", command));
         } catch (Exception e) {
             String errorMsg = String.format("Erro ao desconectar do dispositivo '%s' através do adb. ", this.device.getSerial());
             logger.info(String.format("%s - [%s]", errorMsg, e.getMessage()));
@@ -265,9 +291,23 @@ public class DeviceFarm {
         return stdOut.toString();
     }
 
+    /**
+     * Indica se um dispositivo está alocado para esta sessão, sem alocar um novo dispositivo.
+     *
+     * @return boolean
+     */
+    boolean hasDevice() {
+        return this.device != null;
+    }
+
+    /**
+     * Libera o dispositivo alocado no Device Farm e desconecta o adb. Uma nova chamada a {@link #getDevice()}
+     * aloca um novo dispositivo.
+     */
     public void disconnect() {
         disconnectDevice();
         disconnectAdb();
+        this.device = null;
     }
 
 }
@@ -0,0 +1,84 @@
+package mobile;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro das sessões mobile em execução. Cada thread (worker do Cucumber) recebe a sua
+ * própria {@link DriverSession}, permitindo executar cenários em paralelo, cada um em um
+ * dispositivo diferente, dentro da mesma JVM.
+ */
+public final class DriverRegistry {
+
+    static final Logger logger = LogManager.getLogger(DriverRegistry.class);
+
+    private static final ThreadLocal<DriverSession> currentSession = ThreadLocal.withInitial(DriverRegistry::register);
+    private static final Set<DriverSession> sessions = ConcurrentHashMap.newKeySet();
+
+    private DriverRegistry() {
+    }
+
+    /**
+     * Retorna a sessão vinculada à thread atual, criando uma nova caso ainda não exista.
+     *
+     * @return DriverSession
+     */
+    public static DriverSession current() {
+        return currentSession.get();
+    }
+
+    /**
+     * Vincula o cenário em execução à sessão da thread atual.
+     *
+     * @param scenarioId identificador do cenário Cucumber
+     */
+    public static void bindScenario(String scenarioId) {
+        DriverSession session = current();
+        session.setScenarioId(scenarioId);
+        logger.debug("Cenário '{}' vinculado à sessão da thread '{}'", scenarioId, Thread.currentThread().getName());
+    }
+
+    /**
+     * Registra a feature à qual pertence o driver aberto na sessão da thread atual.
+     *
+     * @param featureUri URI da feature Cucumber
+     */
+    public static void bindFeature(String featureUri) {
+        current().setFeatureUri(featureUri);
+    }
+
+    /**
+     * Remove o vínculo do cenário com a sessão da thread atual.
+     */
+    public static void unbindScenario() {
+        current().setScenarioId(null);
+    }
+
+    /**
+     * Retorna todas as sessões registradas, de todas as threads.
+     *
+     * @return List
+     */
+    public static List<DriverSession> getSessions() {
+        return new ArrayList<>(sessions);
+    }
+
+    /**
+     * Descarta a sessão da thread atual. Uma nova sessão será criada no próximo acesso.
+     */
+    public static void release() {
+        sessions.remove(currentSession.get());
+        currentSession.remove();
+    }
+
+    private static DriverSession register() {
+        DriverSession session = new DriverSession();
+        sessions.add(session);
+        return session;
+    }
+}
@@ -0,0 +1,110 @@
+package mobile;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Agrupa o estado de uma conexão mobile: o Appium Driver, as capabilities utilizadas,
+ * o dispositivo alocado no Device Farm e a plataforma em execução.
+ * Cada thread de execução possui a sua própria instância, mantida pelo {@link DriverRegistry}.
+ */
+public class DriverSession {
+
+    private AppiumDriver appiumDriver;
+    private DesiredCapabilities cap;
+    private DeviceFarm deviceFarm;
+    private MobileCapabilities mobileCapabilities;
+    private MobilePlatform platformName;
+    private MobilePlatform driverPlatform;
+    private String scenarioId;
+    private String featureUri;
+    private final DriverState driverState = new DriverState();
+    private volatile CompletableFuture<SessionPrewarmer.PrewarmedDriver> prewarmedDriver;
+
+    DriverSession() {
+    }
+
+    public AppiumDriver getAppiumDriver() {
+        return appiumDriver;
+    }
+
+    void setAppiumDriver(AppiumDriver appiumDriver) {
+        this.appiumDriver = appiumDriver;
+        if (appiumDriver != null) {
+            this.driverPlatform = platformName;
+        }
+        this.driverState.invalidate();
+    }
+
+    DriverState getDriverState() {
+        return driverState;
+    }
+
+    public DesiredCapabilities getCap() {
+        return cap;
+    }
+
+    void setCap(DesiredCapabilities cap) {
+        this.cap = cap;
+    }
+
+    public DeviceFarm getDeviceFarm() {
+        return deviceFarm;
+    }
+
+    void setDeviceFarm(DeviceFarm deviceFarm) {
+        this.deviceFarm = deviceFarm;
+    }
+
+    public MobileCapabilities getMobileCapabilities() {
+        return mobileCapabilities;
+    }
+
+    void setMobileCapabilities(MobileCapabilities mobileCapabilities) {
+        this.mobileCapabilities = mobileCapabilities;
+    }
+
+    public MobilePlatform getPlatformName() {
+        return platformName;
+    }
+
+    void setPlatformName(MobilePlatform platformName) {
+        this.platformName = platformName;
+    }
+
+    /**
+     * Plataforma para a qual o último Appium Driver da sessão foi criado, mantida após o driver ser finalizado.
+     * As capabilities da sessão pertencem a essa plataforma.
+     *
+     * @return MobilePlatform
+     */
+    public MobilePlatform getDriverPlatform() {
+        return driverPlatform;
+    }
+
+    public String getScenarioId() {
+        return scenarioId;
+    }
+
+    void setScenarioId(String scenarioId) {
+        this.scenarioId = scenarioId;
+    }
+
+    public String getFeatureUri() {
+        return featureUri;
+    }
+
+    void setFeatureUri(String featureUri) {
+        this.featureUri = featureUri;
+    }
+
+    CompletableFuture<SessionPrewarmer.PrewarmedDriver> getPrewarmedDriver() {
+        return prewarmedDriver;
+    }
+
+    void setPrewarmedDriver(CompletableFuture<SessionPrewarmer.PrewarmedDriver> prewarmedDriver) {
+        this.prewarmedDriver = prewarmedDriver;
+    }
+}
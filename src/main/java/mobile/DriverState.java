@@ -0,0 +1,79 @@
+package mobile;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.ScreenOrientation;
+
+import java.time.Duration;
+
+/**
+ * Cópia local do estado do driver no Appium Server (timeouts, contexto, tamanho da tela e orientação),
+ * utilizada para evitar comandos redundantes. Os valores, assim como as referências do {@link ElementCache},
+ * são descartados sempre que a sessão ou o aplicativo é reiniciado. A geração das referências é mantida por
+ * sessão, de modo que a navegação em um device não descarta as referências das demais threads.
+ */
+public class DriverState {
+
+    private Duration implicitWait;
+    private String context;
+    private Dimension windowSize;
+    private ScreenOrientation orientation;
+    private volatile long elementGeneration = ElementCache.nextGeneration();
+
+    DriverState() {
+    }
+
+    Duration getImplicitWait() {
+        return implicitWait;
+    }
+
+    void setImplicitWait(Duration implicitWait) {
+        this.implicitWait = implicitWait;
+    }
+
+    String getContext() {
+        return context;
+    }
+
+    void setContext(String context) {
+        this.context = context;
+    }
+
+    Dimension getWindowSize() {
+        return windowSize;
+    }
+
+    void setWindowSize(Dimension windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    ScreenOrientation getOrientation() {
+        return orientation;
+    }
+
+    void setOrientation(ScreenOrientation orientation) {
+        this.orientation = orientation;
+        this.windowSize = null;
+    }
+
+    long getElementGeneration() {
+        return elementGeneration;
+    }
+
+    /**
+     * Avança a geração das referências de elementos da sessão, descartando as referências em cache.
+     */
+    void invalidateElements() {
+        elementGeneration = ElementCache.nextGeneration();
+    }
+
+    /**
+     * Descarta os valores conhecidos, forçando a consulta ao Appium Server no próximo acesso.
+     */
+    void invalidate() {
+        invalidateElements();
+        implicitWait = null;
+        context = null;
+        windowSize = null;
+        orientation = null;
+    }
+}
@@ -0,0 +1,131 @@
+package mobile;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Controle do cache de referências de elementos habilitado por {@link CacheElements}. As referências são
+ * válidas apenas na geração em que foram localizadas: a geração, mantida por sessão no {@link DriverState},
+ * avança na troca de contexto, nos comandos de navegação (voltar, abrir, encerrar ou reiniciar o aplicativo) e na
+ * troca de driver, descartando as referências em cache da sessão. Também registra, por elemento, os acertos (localizações evitadas), as falhas
+ * (localizações realizadas) e as referências descartadas por estarem desatualizadas (stale).
+ * O registro é feito no {@link MetricsRegistry} como 'elementCache' e pode ser desligado pela propriedade
+ * 'mobile.metrics.elementCache'.
+ */
+public final class ElementCache {
+
+    static final Logger logger = LogManager.getLogger(ElementCache.class);
+
+    private static final AtomicLong generation = new AtomicLong();
+    private static final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private static final boolean isActive = MetricsRegistry.register("elementCache", ElementCache::getSummary,
+            () -> !stats.isEmpty(), ElementCache::reset);
+
+    private ElementCache() {
+    }
+
+    /**
+     * Descarta as referências de elementos em cache da sessão da thread atual. Deve ser chamado após navegações
+     * não realizadas pelos comandos do driver (ex.: um deep link aberto por outro processo).
+     */
+    public static void invalidate() {
+        DriverRegistry.current().getDriverState().invalidateElements();
+    }
+
+    static long generation() {
+        return DriverRegistry.current().getDriverState().getElementGeneration();
+    }
+
+    /**
+     * Retorna uma nova geração, única entre todas as sessões, para que uma referência localizada em uma sessão
+     * nunca seja considerada válida em outra.
+     */
+    static long nextGeneration() {
+        return generation.incrementAndGet();
+    }
+
+    static void recordHit(String name) {
+        if (isActive) {
+            stats(name).hits.increment();
+        }
+    }
+
+    static void recordMiss(String name) {
+        if (isActive) {
+            stats(name).misses.increment();
+        }
+    }
+
+    static void recordStale(String name) {
+        if (isActive) {
+            stats(name).stale.increment();
+        }
+    }
+
+    /**
+     * Retorna a quantidade de localizações evitadas pelo cache para o elemento informado.
+     *
+     * @param name nome do elemento (Tela.campo)
+     * @return long
+     */
+    public static long getHits(String name) {
+        Stats elementStats = stats.get(name);
+        return elementStats == null ? 0 : elementStats.hits.sum();
+    }
+
+    /**
+     * Retorna a quantidade de localizações realizadas para o elemento informado.
+     *
+     * @param name nome do elemento (Tela.campo)
+     * @return long
+     */
+    public static long getMisses(String name) {
+        Stats elementStats = stats.get(name);
+        return elementStats == null ? 0 : elementStats.misses.sum();
+    }
+
+    /**
+     * Retorna o resumo do cache de elementos, ordenado pela quantidade de acertos.
+     *
+     * @return String
+     */
+    public static String getSummary() {
+        List<Map.Entry<String, Stats>> entries = new ArrayList<>(stats.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, Stats> e) -> e.getValue().hits.sum()).reversed());
+
+        StringBuilder summary = new StringBuilder("Cache de elementos:\n");
+        summary.append(String.format("%-60s %8s %8s %8s %8s%n", "elemento", "acertos", "falhas", "stale", "acerto%"));
+        for (Map.Entry<String, Stats> entry : entries) {
+            long hits = entry.getValue().hits.sum();
+            long misses = entry.getValue().misses.sum();
+            summary.append(String.format("%-60s %8d %8d %8d %8.1f%n", entry.getKey(), hits, misses, entry.getValue().stale.sum(),
+                    hits + misses == 0 ? 0 : 100.0 * hits / (hits + misses)));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Descarta os contadores registrados.
+     */
+    public static void reset() {
+        stats.clear();
+    }
+
+    private static Stats stats(String name) {
+        return stats.computeIfAbsent(name, key -> new Stats());
+    }
+
+    private static final class Stats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder stale = new LongAdder();
+    }
+}
@@ -0,0 +1,48 @@
+package mobile;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Resultado de uma espera por vários elementos ({@code MobileBaseActions.waitAnyOf}): indica qual dos
+ * elementos informados foi encontrado primeiro, permitindo decidir o fluxo a partir da tela apresentada.
+ */
+public class ElementMatch {
+
+    private final int index;
+    private final WebElement element;
+    private final By locator;
+
+    ElementMatch(int index, WebElement element, By locator) {
+        this.index = index;
+        this.element = element;
+        this.locator = locator;
+    }
+
+    /**
+     * Posição do elemento encontrado na lista informada para a espera.
+     *
+     * @return int
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public WebElement getElement() {
+        return element;
+    }
+
+    /**
+     * Localizador do elemento encontrado, ou null quando o elemento não possui um localizador conhecido.
+     *
+     * @return By
+     */
+    public By getLocator() {
+        return locator;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ElementMatch[index=%d, locator=%s]", index, locator);
+    }
+}
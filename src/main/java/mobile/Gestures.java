@@ -0,0 +1,188 @@
+package mobile;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.interactions.Interaction;
+import org.openqa.selenium.interactions.Pause;
+import org.openqa.selenium.interactions.PointerInput;
+import org.openqa.selenium.interactions.Sequence;
+import utils.Tracer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Camada de gestos W3C. Os gestos (toques, swipes, pinças) são enfileirados e enviados ao Appium Server em um
+ * único comando 'perform', com uma fonte de entrada (dedo) por toque simultâneo: gestos de um dedo são executados
+ * em sequência pelo primeiro dedo e gestos multi-touch, como a pinça, utilizam dedos adicionais em paralelo.
+ * Gestos relativos ao tamanho da tela podem ser compilados uma única vez por tamanho de tela com
+ * {@link #performOnScreen(String, Function)}.
+ * <pre>
+ * Gestures.create()
+ *         .swipe(900, 1200, 100, 1200, Duration.ofMillis(300))
+ *         .swipe(900, 1200, 100, 1200, Duration.ofMillis(300))
+ *         .tap(540, 1800)
+ *         .perform();
+ * </pre>
+ */
+public final class Gestures {
+
+    private static final Map<String, List<Sequence>> compiled = new ConcurrentHashMap<>();
+
+    private final List<List<List<Function<PointerInput, Interaction>>>> steps = new ArrayList<>();
+    private final Set<List<List<Function<PointerInput, Interaction>>>> sharedSteps = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int fingers = 1;
+
+    private Gestures() {
+    }
+
+    public static Gestures create() {
+        return new Gestures();
+    }
+
+    /**
+     * Toque simples no ponto informado.
+     *
+     * @param x coordenada horizontal
+     * @param y coordenada vertical
+     * @return Gestures
+     */
+    public Gestures tap(int x, int y) {
+        return longPress(x, y, Duration.ZERO);
+    }
+
+    /**
+     * Toque mantido pressionado pelo tempo informado.
+     *
+     * @param x        coordenada horizontal
+     * @param y        coordenada vertical
+     * @param duration tempo pressionado
+     * @return Gestures
+     */
+    public Gestures longPress(int x, int y, Duration duration) {
+        List<Function<PointerInput, Interaction>> actions = new ArrayList<>();
+        actions.add(finger -> finger.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(), x, y));
+        actions.add(finger -> finger.createPointerDown(PointerInput.MouseButton.LEFT.asArg()));
+        actions.add(finger -> new Pause(finger, duration));
+        actions.add(finger -> finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
+        steps.add(Collections.singletonList(actions));
+        return this;
+    }
+
+    /**
+     * Arrasta um dedo do ponto inicial ao ponto final.
+     *
+     * @param fromX    coordenada horizontal inicial
+     * @param fromY    coordenada vertical inicial
+     * @param toX      coordenada horizontal final
+     * @param toY      coordenada vertical final
+     * @param duration duração do movimento
+     * @return Gestures
+     */
+    public Gestures swipe(int fromX, int fromY, int toX, int toY, Duration duration) {
+        steps.add(Collections.singletonList(drag(fromX, fromY, toX, toY, duration)));
+        return this;
+    }
+
+    /**
+     * Pinça com dois dedos, na horizontal, a partir do centro informado. Com a distância final maior que a
+     * inicial o gesto amplia (zoom in); caso contrário reduz (zoom out).
+     *
+     * @param centerX       coordenada horizontal do centro
+     * @param centerY       coordenada vertical do centro
+     * @param startDistance distância inicial entre os dedos
+     * @param endDistance   distância final entre os dedos
+     * @param duration      duração do movimento
+     * @return Gestures
+     */
+    public Gestures pinch(int centerX, int centerY, int startDistance, int endDistance, Duration duration) {
+        List<List<Function<PointerInput, Interaction>>> step = new ArrayList<>();
+        step.add(drag(centerX - startDistance / 2, centerY, centerX - endDistance / 2, centerY, duration));
+        step.add(drag(centerX + startDistance / 2, centerY, centerX + endDistance / 2, centerY, duration));
+        fingers = Math.max(fingers, step.size());
+        steps.add(step);
+        return this;
+    }
+
+    /**
+     * Pausa entre os gestos enfileirados, aplicada a todos os dedos.
+     *
+     * @param duration tempo de pausa
+     * @return Gestures
+     */
+    public Gestures pause(Duration duration) {
+        List<List<Function<PointerInput, Interaction>>> step = Collections.singletonList(Collections.singletonList(finger -> new Pause(finger, duration)));
+        sharedSteps.add(step);
+        steps.add(step);
+        return this;
+    }
+
+    /**
+     * Monta as sequências W3C dos gestos enfileirados, uma por dedo. Em cada gesto os dedos que não participam
+     * recebem pausas sem duração, mantendo todos os dedos sincronizados.
+     *
+     * @return List
+     */
+    public List<Sequence> build() {
+        List<PointerInput> inputs = new ArrayList<>(fingers);
+        List<Sequence> sequences = new ArrayList<>(fingers);
+        for (int i = 0; i < fingers; i++) {
+            PointerInput finger = new PointerInput(PointerInput.Kind.TOUCH, "finger" + (i + 1));
+            inputs.add(finger);
+            sequences.add(new Sequence(finger, 0));
+        }
+        for (List<List<Function<PointerInput, Interaction>>> step : steps) {
+            int ticks = step.stream().mapToInt(List::size).max().orElse(0);
+            for (int i = 0; i < fingers; i++) {
+                List<Function<PointerInput, Interaction>> actions = sharedSteps.contains(step) ? step.get(0)
+                        : i < step.size() ? step.get(i) : Collections.emptyList();
+                for (int tick = 0; tick < ticks; tick++) {
+                    PointerInput finger = inputs.get(i);
+                    sequences.get(i).addAction(tick < actions.size() ? actions.get(tick).apply(finger) : new Pause(finger, Duration.ZERO));
+                }
+            }
+        }
+        return sequences;
+    }
+
+    /**
+     * Executa todos os gestos enfileirados em um único comando.
+     */
+    public void perform() {
+        perform(build());
+    }
+
+    /**
+     * Executa um gesto relativo ao tamanho da tela. As sequências são montadas uma única vez para cada nome
+     * e tamanho de tela e reutilizadas nas execuções seguintes.
+     *
+     * @param name    nome do gesto, incluindo os seus parâmetros (ex.: 'scroll 0.8 0.2 down')
+     * @param gesture função que monta o gesto a partir do tamanho da tela
+     */
+    public static void performOnScreen(String name, Function<Dimension, Gestures> gesture) {
+        Dimension size = Mobile.getWindowSize();
+        perform(compiled.computeIfAbsent(name + "@" + size.width + "x" + size.height, key -> gesture.apply(size).build()));
+    }
+
+    private static void perform(List<Sequence> sequences) {
+        try (Tracer.Span span = Tracer.span("action", "gesture")) {
+            Mobile.setDriverContext(DriverContext.NATIVE_APP);
+            Mobile.getDriver().perform(sequences);
+        }
+    }
+
+    private static List<Function<PointerInput, Interaction>> drag(int fromX, int fromY, int toX, int toY, Duration duration) {
+        List<Function<PointerInput, Interaction>> actions = new ArrayList<>();
+        actions.add(finger -> finger.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(), fromX, fromY));
+        actions.add(finger -> finger.createPointerDown(PointerInput.MouseButton.LEFT.asArg()));
+        actions.add(finger -> finger.createPointerMove(duration, PointerInput.Origin.viewport(), toX, toY));
+        actions.add(finger -> finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
+        return actions;
+    }
+}
@@ -0,0 +1,70 @@
+package mobile;
+
+import io.appium.java_client.MobileCommand;
+import io.appium.java_client.remote.AppiumCommandExecutor;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.http.HttpClient;
+import utils.Tracer;
+
+import java.net.URL;
+import java.util.Set;
+
+/**
+ * Executor de comandos Appium que mede a latência de cada comando enviado ao servidor
+ * e a registra em {@link CommandMetrics}. Com o trace habilitado, cada comando também é registrado
+ * como um span filho da ação da tela em execução (ver {@link Tracer}). Os comandos de navegação descartam
+ * as referências do {@link ElementCache}.
+ */
+class InstrumentedCommandExecutor extends AppiumCommandExecutor {
+
+    /**
+     * Comandos que alteram a tela ou o aplicativo em primeiro plano e descartam as referências do {@link ElementCache}.
+     */
+    private static final Set<String> NAVIGATION_COMMANDS = Set.of(DriverCommand.GO_BACK, DriverCommand.REFRESH, DriverCommand.GET,
+            "activateApp", "terminateApp", "installApp", "removeApp", "runAppInBackground", "startActivity", "switchToContext",
+            "pressKeyCode", "executeScript mobile: activateApp", "executeScript mobile: terminateApp",
+            "executeScript mobile: startActivity", "executeScript mobile: clearApp", "executeScript mobile: backgroundApp",
+            "executeScript mobile: pressKey", "executeScript mobile: deepLink");
+
+    InstrumentedCommandExecutor(URL addressOfRemoteServer, HttpClient.Factory httpClientFactory) {
+        super(MobileCommand.commandRepository, addressOfRemoteServer, httpClientFactory);
+    }
+
+    @Override
+    public Response execute(Command command) {
+        String name = commandName(command);
+        long start = System.nanoTime();
+        long traceStart = Tracer.nowMicros();
+        boolean error = true;
+        if (NAVIGATION_COMMANDS.contains(name)) {
+            ElementCache.invalidate();
+        }
+        try {
+            Response response = super.execute(command);
+            error = response != null && response.getStatus() != null && response.getStatus() != 0;
+            return response;
+        } finally {
+            CommandMetrics.record(name, System.nanoTime() - start, error);
+            Tracer.complete("command", name, traceStart, error);
+        }
+    }
+
+    /**
+     * Retorna o nome do comando W3C, incluindo o script para os comandos 'executeScript' do Appium
+     * (ex.: 'executeScript flutter:waitFor', 'executeScript mobile: scroll').
+     *
+     * @param command comando enviado ao servidor
+     * @return String
+     */
+    static String commandName(Command command) {
+        if (DriverCommand.EXECUTE_SCRIPT.equals(command.getName()) && command.getParameters() != null) {
+            Object script = command.getParameters().get("script");
+            if (script instanceof String && (((String) script).startsWith("flutter:") || ((String) script).startsWith("mobile:"))) {
+                return command.getName() + " " + script;
+            }
+        }
+        return command.getName();
+    }
+}
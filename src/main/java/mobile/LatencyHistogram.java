@@ -0,0 +1,96 @@
+package mobile;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências com baixo custo de gravação, seguro para uso entre threads.
+ * Os valores são registrados em microssegundos em faixas logarítmicas (8 subfaixas por potência de 2),
+ * o que garante erro máximo de ~12% nos percentis.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 8;
+    private static final int MAGNITUDES = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(MAGNITUDES * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Registra uma latência.
+     *
+     * @param nanos duração em nanossegundos
+     * @param error indica se a execução terminou em erro
+     */
+    public void record(long nanos, boolean error) {
+        long micros = Math.max(1, nanos / 1_000);
+        buckets.incrementAndGet(indexOf(micros));
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getTotalMillis() {
+        return totalMicros.sum() / 1_000;
+    }
+
+    public long getMaxMillis() {
+        return maxMicros.get() / 1_000;
+    }
+
+    /**
+     * Retorna o valor aproximado do percentil informado, em milissegundos.
+     *
+     * @param percentile percentil entre 0 e 100
+     * @return double
+     */
+    public double getPercentileMillis(double percentile) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), maxMicros.get()) / 1_000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    private static int indexOf(long micros) {
+        int magnitude = 63 - Long.numberOfLeadingZeros(micros);
+        if (magnitude >= MAGNITUDES) {
+            return MAGNITUDES * SUB_BUCKETS - 1;
+        }
+        int subBucket = magnitude < 3 ? (int) (micros - (1L << magnitude)) : (int) ((micros >> (magnitude - 3)) & (SUB_BUCKETS - 1));
+        return magnitude * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int index) {
+        int magnitude = index / SUB_BUCKETS;
+        int subBucket = index % SUB_BUCKETS;
+        if (magnitude < 3) {
+            return (1L << magnitude) + subBucket + 1;
+        }
+        long width = 1L << (magnitude - 3);
+        return (1L << magnitude) + (subBucket + 1) * width;
+    }
+}
@@ -0,0 +1,74 @@
+package mobile;
+
+import data.InternalPropertiesLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Registro dos grupos de métricas do framework (comandos, esperas, cache de elementos...). Cada grupo é registrado
+ * uma única vez, na inicialização da sua classe, com um nome e pode ser desligado pela propriedade
+ * 'mobile.metrics.&lt;nome&gt;' do arquivo configuration_core.properties (todos habilitados por padrão).
+ * Ao final da execução {@link #logSummaries()} registra no log o resumo dos grupos habilitados que possuem registros.
+ */
+public final class MetricsRegistry {
+
+    static final Logger logger = LogManager.getLogger(MetricsRegistry.class);
+
+    private static final InternalPropertiesLoader pLoader = new InternalPropertiesLoader("configuration_core.properties");
+    private static final Map<String, Metrics> registered = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Registra um grupo de métricas.
+     *
+     * @param name       nome do grupo, utilizado na propriedade 'mobile.metrics.&lt;nome&gt;'
+     * @param summary    resumo das métricas registradas
+     * @param hasRecords indica se o grupo possui registros a serem resumidos
+     * @param reset      descarta os registros do grupo
+     * @return true quando o grupo está habilitado e deve registrar as métricas
+     */
+    public static boolean register(String name, Supplier<String> summary, BooleanSupplier hasRecords, Runnable reset) {
+        boolean isActive = Boolean.parseBoolean(pLoader.getValue("mobile.metrics." + name, "true").trim());
+        registered.put(name, new Metrics(isActive, summary, hasRecords, reset));
+        return isActive;
+    }
+
+    /**
+     * Registra no log o resumo de cada grupo habilitado que possua registros.
+     */
+    public static void logSummaries() {
+        registered.values().forEach(metrics -> {
+            if (metrics.isActive && metrics.hasRecords.getAsBoolean()) {
+                logger.info(metrics.summary.get());
+            }
+        });
+    }
+
+    /**
+     * Descarta os registros de todos os grupos.
+     */
+    public static void resetAll() {
+        registered.values().forEach(metrics -> metrics.reset.run());
+    }
+
+    private static final class Metrics {
+        private final boolean isActive;
+        private final Supplier<String> summary;
+        private final BooleanSupplier hasRecords;
+        private final Runnable reset;
+
+        private Metrics(boolean isActive, Supplier<String> summary, BooleanSupplier hasRecords, Runnable reset) {
+            this.isActive = isActive;
+            this.summary = summary;
+            this.hasRecords = hasRecords;
+            this.reset = reset;
+        }
+    }
+}
@@ -10,16 +10,21 @@ import io.appium.java_client.InteractsWithApps;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.ios.IOSDriver;
 import io.appium.java_client.remote.SupportsContextSwitching;
+import io.appium.java_client.remote.SupportsRotation;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Dimension;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchContextException;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.ScreenOrientation;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.remote.DesiredCapabilities;
 
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.Duration;
+import java.util.Collection;
 
 /**
  * Esta classe tem o objetivo centralizar as variáveis
@@ -30,56 +35,165 @@ public class Mobile {
 
     static final Logger logger = LogManager.getLogger(Mobile.class);
 
-    private static AppiumDriver appiumDriver;
-    private static DeviceFarm deviceFarm;
-    private static DesiredCapabilities cap;
     private static String appiumUrl = new InternalPropertiesLoader("configuration_core.properties").getValue("mobile.appium.url");
     private static Boolean isDeviceFarmActive = Boolean.valueOf(new InternalPropertiesLoader("configuration_core.properties").getValue("mobile.devicefarm.android.isActive"));
-    private static MobilePlatform platformName;
+    private static boolean isAppiumServer = Boolean.parseBoolean(new InternalPropertiesLoader("configuration_core.properties").getValue("mobile.appium.server"));
+    private static final Duration DEFAULT_IMPLICIT_WAIT = Duration.ofMillis(Long.parseLong(new InternalPropertiesLoader("configuration_core.properties").getValue("mobile.wait.implicit", "1000")));
 
     /**
      * Retorna o Driver Appium já iniciado e conectado com o device.
+     * O driver retornado é o vinculado à thread atual no {@link DriverRegistry}, com o implicit wait padrão
+     * da propriedade 'mobile.wait.implicit' (milissegundos, padrão 1000). As esperas do {@link AdaptiveWait}
+     * utilizam implicit wait zero, mantido enquanto a condição de uma espera estiver sendo avaliada;
+     * com 'mobile.wait.implicit=0' o valor nunca precisa ser alternado.
      *
      * @return appiumDriver
      */
     public static AppiumDriver getDriver() {
+        AppiumDriver appiumDriver = DriverRegistry.current().getAppiumDriver();
         if (appiumDriver == null) {
             return createDriver();
         }
-        appiumDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(1));
+        setImplicitWait(AdaptiveWait.isPolling() ? Duration.ZERO : DEFAULT_IMPLICIT_WAIT);
         return appiumDriver;
     }
 
+    /**
+     * Altera o implicit wait do driver. O comando só é enviado ao Appium Server quando o valor
+     * for diferente do último valor definido na sessão.
+     *
+     * @param implicitWait tempo de espera implícito
+     */
+    public static void setImplicitWait(Duration implicitWait) {
+        DriverSession session = DriverRegistry.current();
+        DriverState state = session.getDriverState();
+        if (session.getAppiumDriver() != null && !implicitWait.equals(state.getImplicitWait())) {
+            session.getAppiumDriver().manage().timeouts().implicitlyWait(implicitWait);
+            state.setImplicitWait(implicitWait);
+        }
+    }
+
+    /**
+     * Retorna o tamanho da tela do device. O valor é consultado uma única vez por sessão
+     * e descartado quando a orientação, o aplicativo ou a sessão forem alterados.
+     *
+     * @return Dimension
+     */
+    public static Dimension getWindowSize() {
+        DriverState state = DriverRegistry.current().getDriverState();
+        if (state.getWindowSize() == null) {
+            state.setWindowSize(getDriver().manage().window().getSize());
+        }
+        return state.getWindowSize();
+    }
+
+    /**
+     * Retorna a orientação atual da tela do device.
+     *
+     * @return ScreenOrientation
+     */
+    public static ScreenOrientation getOrientation() {
+        DriverState state = DriverRegistry.current().getDriverState();
+        if (state.getOrientation() == null) {
+            state.setOrientation(((SupportsRotation) getDriver()).getOrientation());
+        }
+        return state.getOrientation();
+    }
+
+    /**
+     * Altera a orientação da tela do device, caso seja diferente da orientação atual.
+     *
+     * @param orientation orientação desejada
+     */
+    public static void rotate(ScreenOrientation orientation) {
+        if (getOrientation() != orientation) {
+            ((SupportsRotation) getDriver()).rotate(orientation);
+            DriverRegistry.current().getDriverState().setOrientation(orientation);
+        }
+    }
+
     /**
      * Metodo privado para construição do objeto appiumDriver, e execução da
-     * conexão com o device
+     * conexão com o device. As etapas independentes (Appium Server, Device Farm,
+     * capabilities e validação do aplicativo) são executadas em paralelo pelo {@link StartupGraph}.
      *
      * @return appiumDriver
      */
     private static AppiumDriver createDriver() {
-        try {
-            if (cap == null) {
-                cap = setCapability();
-            }
+        DriverSession session = DriverRegistry.current();
+        MobilePlatform platform = session.getPlatformName();
+        boolean useDeviceFarm = (isDeviceFarmActive || isJenkinsEnvironment()) && platform == MobilePlatform.ANDROID;
+        AppInstall[] appInstall = new AppInstall[1];
+
+        logger.info("Iniciando processo de instancia do Appium Driver para a plataforma {}", platform.toString());
+
+        StartupGraph startup = new StartupGraph();
+        startup.node("appiumServer", () -> {
+            if (isAppiumServer)
+                AppiumServer.start();
+        });
+        if (session.getCap() == null) {
+            startup.node("capabilities", () -> {
+                if (session.getMobileCapabilities() == null)
+                    session.setMobileCapabilities(new MobileCapabilities(platform));
+            });
+            startup.node("deviceFarm", () -> {
+                logger.info("DeviceFarm = (mobile.devicefarm.android.isActive = {})", isDeviceFarmActive);
+                if (useDeviceFarm)
+                    DeviceFarm.getInstance(session).getDevice();
+            });
+            startup.node("appInstall", () -> appInstall[0] = new AppInstall(session.getMobileCapabilities(), platform), "capabilities");
+            startup.node("desiredCapabilities", () -> {
+                if (useDeviceFarm)
+                    setCapabilityDeviceFarm(session);
+                session.setCap(getCapability(session, appInstall[0]));
+            }, "capabilities", "deviceFarm", "appInstall");
+            startup.node("driver", () -> connect(session), "appiumServer", "desiredCapabilities");
+        } else {
+            startup.node("driver", () -> connect(session), "appiumServer");
+        }
+        OcrEngines.warmup();
+        startup.run();
 
-            logger.info("Iniciando processo de instancia do Appium Driver para a plataforma {}", Mobile.platformName.toString());
+        setImplicitWait(DEFAULT_IMPLICIT_WAIT);
+        return session.getAppiumDriver();
+    }
 
-            switch (Mobile.platformName) {
-                case ANDROID:
-                    appiumDriver = new AndroidDriver(new URL(appiumUrl), cap);
-                    break;
-                case IOS:
-                    appiumDriver = new IOSDriver(new URL(appiumUrl), cap);
-                    break;
+    /**
+     * Metodo interno responsável por conectar a sessão ao Appium Server, aproveitando a sessão
+     * pré-aquecida quando existir (ver {@link SessionPrewarmer}).
+     *
+     * @param session sessão registrada no {@link DriverRegistry}
+     */
+    private static void connect(DriverSession session) {
+        try {
+            AppiumDriver appiumDriver = SessionPrewarmer.take(session, session.getCap());
+            if (appiumDriver == null) {
+                appiumDriver = newDriver(session.getPlatformName(), session.getCap());
             }
-
+            session.setAppiumDriver(appiumDriver);
             logger.info("Appium Driver instanciado com sucesso.");
-
         } catch (Exception e) {
             throw new AutomationException("Falha ao instanciar o Appium Driver = [%s]", e.getMessage());
         }
-        appiumDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(1));
-        return appiumDriver;
+    }
+
+    /**
+     * Metodo interno responsável por abrir a sessão com o Appium Server para a plataforma informada
+     *
+     * @param platform plataforma mobile da sessão
+     * @param cap      DesiredCapabilities da sessão
+     * @return appiumDriver
+     * @throws MalformedURLException quando a propriedade 'mobile.appium.url' não é uma URL válida
+     */
+    static AppiumDriver newDriver(MobilePlatform platform, DesiredCapabilities cap) throws MalformedURLException {
+        switch (platform) {
+            case IOS:
+                return new IOSDriver(new InstrumentedCommandExecutor(new URL(appiumUrl), AppiumHttpClientFactory.getInstance()), cap);
+            case ANDROID:
+            default:
+                return new AndroidDriver(new InstrumentedCommandExecutor(new URL(appiumUrl), AppiumHttpClientFactory.getInstance()), cap);
+        }
     }
 
     /**
@@ -88,35 +202,67 @@ public class Mobile {
      * @param cap - DesiredCapabilities do aplicativo que sera aberto
      */
     public static void abrirNovoApp(DesiredCapabilities cap) {
+        DriverSession session = DriverRegistry.current();
+        AppiumDriver appiumDriver = null;
         try {
             logger.info("Iniciando nova aplicação.");
 
-            switch (Mobile.platformName) {
-                case ANDROID:
-                    appiumDriver = new AndroidDriver(new URL(appiumUrl), cap);
-                    break;
-                case IOS:
-                    appiumDriver = new IOSDriver(new URL(appiumUrl), cap);
-                    break;
-            }
+            appiumDriver = newDriver(session.getPlatformName(), cap);
+            session.setAppiumDriver(appiumDriver);
             logger.info("Aplicação iniciada com sucesso.");
 
         } catch (Exception e) {
             throw new AutomationException("Falha ao iniciar nova aplicação = [%s]", e.getMessage());
         }
-        appiumDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(1));
+        setImplicitWait(DEFAULT_IMPLICIT_WAIT);
     }
 
     /**
-     * Responsável por limpar o objeto appium driver e desconectar do device
+     * Responsável por limpar o objeto appium driver e desconectar do device. O dispositivo alocado no Device Farm
+     * é liberado, exceto quando a próxima sessão foi pré-aquecida para o mesmo dispositivo.
      */
     public static void closeDriver() {
+        DriverSession session = DriverRegistry.current();
+        closeDriver(session, true);
+        if (session.getPrewarmedDriver() == null) {
+            disconnectDevice(session);
+        }
+    }
+
+    /**
+     * Responsável por finalizar os drivers de todas as sessões registradas no {@link DriverRegistry} e liberar os
+     * dispositivos alocados no Device Farm, utilizado ao término da execução.
+     */
+    public static void closeAllDrivers() {
+        for (DriverSession session : DriverRegistry.getSessions()) {
+            try {
+                closeDriver(session, false);
+            } catch (Exception e) {
+                logger.warn("Falha ao finalizar o Appium Driver - [{}]", e.getMessage());
+            }
+            disconnectDevice(session);
+        }
+    }
+
+    /**
+     * Metodo interno responsável por limpar o objeto appium driver de uma sessão específica e desconectar do device
+     *
+     * @param session     sessão registrada no {@link DriverRegistry}
+     * @param prewarmNext define se a próxima sessão deve ser pré-aquecida (ver {@link SessionPrewarmer})
+     */
+    static void closeDriver(DriverSession session, boolean prewarmNext) {
+        AppiumDriver appiumDriver = session.getAppiumDriver();
         if (appiumDriver != null) {
-            ((InteractsWithApps) appiumDriver).terminateApp(getAppPackageOrBundleId());
+            OcrCache.evict(session);
+            DesiredCapabilities cap = session.getCap();
+            ((InteractsWithApps) appiumDriver).terminateApp(getAppPackageOrBundleId(session));
             appiumDriver.quit();
-            appiumDriver = null;
-            cap = null;
+            session.setAppiumDriver(null);
+            session.setCap(null);
             logger.info("Appium Driver finalizado!");
+            if (prewarmNext) {
+                SessionPrewarmer.schedule(session, cap);
+            }
         }
     }
 
@@ -126,7 +272,7 @@ public class Mobile {
      * @return (JavascriptExecutor) appiumDriver
      */
     public static JavascriptExecutor getJsExecutor() {
-        return (JavascriptExecutor) appiumDriver;
+        return (JavascriptExecutor) DriverRegistry.current().getAppiumDriver();
     }
 
     /**
@@ -137,39 +283,91 @@ public class Mobile {
      */
     public static void restartApplication() throws InterruptedException {
         logger.info("Reiniciando aplicativo");
+        AppiumDriver appiumDriver = DriverRegistry.current().getAppiumDriver();
         String appPackageOrBundleId = getAppPackageOrBundleId();
         ((InteractsWithApps) appiumDriver).terminateApp(appPackageOrBundleId);
         ((InteractsWithApps) appiumDriver).activateApp(appPackageOrBundleId);
+        DriverRegistry.current().getDriverState().invalidate();
+    }
+
+    /**
+     * Prepara o driver para o cenário que será executado. Quando o escopo de sessão configurado permite,
+     * a sessão aberta é reaproveitada e o aplicativo é reiniciado com a estratégia definida pelas tags
+     * do cenário; caso contrário uma nova sessão é criada. A tag '@newSession' força a criação de uma nova sessão.
+     * Quando a plataforma do cenário é diferente da plataforma da sessão anterior, as capabilities da sessão
+     * anterior são descartadas e montadas novamente para a nova plataforma.
+     *
+     * @param featureUri URI da feature do cenário
+     * @param tags       tags do cenário
+     */
+    public static void prepareDriver(String featureUri, Collection<String> tags) {
+        DriverSession session = DriverRegistry.current();
+        if (SessionScope.getConfigured().canReuse(session, featureUri) && !tags.contains("@newSession")) {
+            resetApplication(AppResetStrategy.fromTags(tags));
+        } else {
+            closeDriver(session, false);
+            if (session.getDriverPlatform() != null && session.getDriverPlatform() != session.getPlatformName()) {
+                logger.info("Plataforma alterada de {} para {}, as capabilities da sessão serão recriadas",
+                        session.getDriverPlatform(), session.getPlatformName());
+                session.setCap(null);
+                session.setMobileCapabilities(null);
+            }
+            getDriver();
+        }
+        DriverRegistry.bindFeature(featureUri);
+    }
+
+    /**
+     * Retorna o aplicativo ao estado inicial sem finalizar a sessão Appium, utilizando a estratégia informada.
+     * Caso a estratégia falhe, a sessão é recriada.
+     *
+     * @param strategy estratégia de reset do aplicativo
+     */
+    public static void resetApplication(AppResetStrategy strategy) {
+        logger.info("Reaproveitando a sessão Appium, reset do aplicativo com a estratégia '{}'", strategy.toString().toLowerCase());
+        try {
+            strategy.apply(DriverRegistry.current().getAppiumDriver(), getAppPackageOrBundleId());
+            DriverRegistry.current().getDriverState().invalidate();
+        } catch (Exception e) {
+            logger.warn("Falha no reset do aplicativo, a sessão Appium será recriada - [{}]", e.getMessage());
+            DriverSession session = DriverRegistry.current();
+            try {
+                closeDriver(session, false);
+            } catch (Exception closeException) {
+                session.setAppiumDriver(null);
+                session.setCap(null);
+            }
+            getDriver();
+        }
     }
 
     /**
      * Responsável por desconectar um dispositivo do Device Farm
      */
     public static void disconnectDevice() {
-        if ((isDeviceFarmActive || isJenkinsEnvironment()) && deviceFarm != null && deviceFarm.getDevice() != null) {
-            deviceFarm.disconnect();
-        }
+        disconnectDevice(DriverRegistry.current());
     }
 
     /**
-     * Método responsável por iniciar a construção das capabilities
+     * Responsável por desconectar do Device Farm o dispositivo alocado para uma sessão específica
      *
-     * @return DesiredCapabilities
+     * @param session sessão registrada no {@link DriverRegistry}
      */
-    private static DesiredCapabilities setCapability() {
-        if ((isDeviceFarmActive || isJenkinsEnvironment()) && Mobile.getPlatformName() == MobilePlatform.ANDROID)
-            setCapabilityDeviceFarm();
-        logger.info("DeviceFarm = (mobile.devicefarm.android.isActive = {})", isDeviceFarmActive);
-        return getCapability();
+    public static void disconnectDevice(DriverSession session) {
+        DeviceFarm deviceFarm = session.getDeviceFarm();
+        if ((isDeviceFarmActive || isJenkinsEnvironment()) && deviceFarm != null && deviceFarm.hasDevice()) {
+            deviceFarm.disconnect();
+        }
     }
 
     /**
      * Metodo interno reponsável por setar os capabilities para a conexão com o device do Device Farm.
+     *
+     * @param session sessão registrada no {@link DriverRegistry}
      */
-    private static void setCapabilityDeviceFarm() {
-        deviceFarm = DeviceFarm.getInstance();
-        Device device = deviceFarm.getDevice();
-        MobileCapabilities mobileCapabilities = MobileCapabilities.getInstance();
+    private static void setCapabilityDeviceFarm(DriverSession session) {
+        Device device = DeviceFarm.getInstance(session).getDevice();
+        MobileCapabilities mobileCapabilities = session.getMobileCapabilities();
         mobileCapabilities.setPlatformName(device.getPlatform());
         mobileCapabilities.setDeviceName(device.getRemoteConnectUrl());
         mobileCapabilities.setPlatformVersion(device.getPlatformVersion());
@@ -178,10 +376,12 @@ public class Mobile {
     /**
      * Metodo interno reponsável por construir os capabilities para a conexão com o device.
      *
+     * @param session    sessão registrada no {@link DriverRegistry}
+     * @param appInstall aplicativo validado para instalação no device
      * @return DesiredCapabilities
      */
-    private static DesiredCapabilities getCapability() {
-        MobileCapabilities mobileCapabilities = MobileCapabilities.getInstance();
+    private static DesiredCapabilities getCapability(DriverSession session, AppInstall appInstall) {
+        MobileCapabilities mobileCapabilities = session.getMobileCapabilities();
         DesiredCapabilities cap = new DesiredCapabilities();
         cap.setCapability("platformName", mobileCapabilities.getPlatformName());
         cap.setCapability("deviceName", mobileCapabilities.getDeviceName());
@@ -189,9 +389,9 @@ public class Mobile {
         cap.setCapability("automationName", mobileCapabilities.getAutomationName());
         cap.setCapability("fullReset", mobileCapabilities.getFullReset());
         cap.setCapability("newCommandTimeout", mobileCapabilities.getNewCommandTimeout());
-        new AppInstall().setAppCapability(cap);
+        appInstall.setAppCapability(cap);
 
-        switch (Mobile.platformName) {
+        switch (session.getPlatformName()) {
             case ANDROID:
                 cap.setCapability("noReset", mobileCapabilities.getNoReset());
                 cap.setCapability("appium:appPackage", mobileCapabilities.getAppPackage());
@@ -217,7 +417,7 @@ public class Mobile {
      * @return byte[]
      */
     public static byte[] getScreenShot() {
-        return ((TakesScreenshot) appiumDriver).getScreenshotAs(OutputType.BYTES);
+        return ((TakesScreenshot) DriverRegistry.current().getAppiumDriver()).getScreenshotAs(OutputType.BYTES);
     }
 
     /**
@@ -235,20 +435,25 @@ public class Mobile {
      * @return boolean
      */
     public static DesiredCapabilities getDesiredCapabilities() {
-        return cap;
+        return DriverRegistry.current().getCap();
     }
 
     public static void setPlatformName(MobilePlatform platformName) {
-        Mobile.platformName = platformName;
+        DriverRegistry.current().setPlatformName(platformName);
     }
 
     public static MobilePlatform getPlatformName() {
-        return Mobile.platformName;
+        return DriverRegistry.current().getPlatformName();
     }
 
     private static String getAppPackageOrBundleId() {
-        MobileCapabilities mobileCapabilities = MobileCapabilities.getInstance();
-        return getPlatformName() == MobilePlatform.ANDROID ? mobileCapabilities.getAppPackage() : mobileCapabilities.getBundleId();
+        return getAppPackageOrBundleId(DriverRegistry.current());
+    }
+
+    private static String getAppPackageOrBundleId(DriverSession session) {
+        MobileCapabilities mobileCapabilities = session.getMobileCapabilities();
+        MobilePlatform platform = session.getDriverPlatform() != null ? session.getDriverPlatform() : session.getPlatformName();
+        return platform == MobilePlatform.ANDROID ? mobileCapabilities.getAppPackage() : mobileCapabilities.getBundleId();
     }
 
     /**
@@ -257,14 +462,19 @@ public class Mobile {
      * @param driverContext - Enum informando o contexto do driver mobile
      */
     public static void setDriverContext(DriverContext driverContext) {
-        String currentDriverContext = ((SupportsContextSwitching) Mobile.getDriver()).getContext();
+        DriverState state = DriverRegistry.current().getDriverState();
+        if (state.getContext() == null) {
+            state.setContext(((SupportsContextSwitching) Mobile.getDriver()).getContext());
+        }
         try {
-            if (!currentDriverContext.equals(driverContext.toString())) {
+            if (!state.getContext().equals(driverContext.toString())) {
                 ((SupportsContextSwitching) Mobile.getDriver()).context(driverContext.toString());
+                state.setContext(driverContext.toString());
+                ElementCache.invalidate();
                 logger.debug("Contexto do driver alterado: {}", driverContext.toString());
             }
         } catch (NoSuchContextException e) {
-            String validContexts = ((SupportsContextSwitching) appiumDriver).getContextHandles().toString();
+            String validContexts = ((SupportsContextSwitching) Mobile.getDriver()).getContextHandles().toString();
             throw new NoSuchContextException(
                     String.format("O contexto '%s' não é válido para o driver em execução, contextos válidos: %s - [%s]"
                             , driverContext.toString(), validContexts, e.getMessage())
@@ -1,46 +1,32 @@
 package mobile;
 
-import java.awt.AWTException;
-import java.awt.Graphics2D;
-import java.awt.Point;
-import java.awt.Rectangle;
-import java.awt.Robot;
-import java.awt.event.InputEvent;
-import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
-import java.awt.image.RescaleOp;
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Optional;
 
-import javax.imageio.ImageIO;
-
+import data.InternalPropertiesLoader;
 import exceptions.AutomationException;
-import flutter.PageFactoryFlutter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Dimension;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
-import org.openqa.selenium.interactions.PointerInput;
-import org.openqa.selenium.interactions.Sequence;
-import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
-
-import io.appium.java_client.pagefactory.AppiumFieldDecorator;
-import net.sourceforge.tess4j.ITessAPI;
-import net.sourceforge.tess4j.ITesseract;
-import net.sourceforge.tess4j.Tesseract;
-import net.sourceforge.tess4j.TesseractException;
-import net.sourceforge.tess4j.Word;
-import utils.Utils;
+
+import io.appium.java_client.HasOnScreenKeyboard;
+import utils.Tracer;
 
 /**
  * Centraliza os comportamentos comuns e cuida de variáveis relacionadas a telas android Mobile.
@@ -52,6 +38,17 @@ public abstract class MobileBaseActions {
 
     public static final Boolean NOT_EXCEPTION = false;
     public static final Boolean EXCEPTION = true;
+    private static final By EDIT_TEXT = By.className("android.widget.EditText");
+    private static final Duration SWIPE_DURATION = Duration.ofMillis(700);
+    private static final String SCROLL_STRATEGY = new InternalPropertiesLoader("configuration_core.properties")
+            .getValue("mobile.scroll.strategy", "native");
+    private static final boolean SCROLL_REVERSE_AT_END = Boolean.parseBoolean(new InternalPropertiesLoader("configuration_core.properties")
+            .getValue("mobile.scroll.reverseAtEnd", "false"));
+    /**
+     * @deprecated as novas tentativas de isView, click e waitDisappear são controladas por execução pelo
+     * {@link RetryPolicy}, dentro do prazo de cada ação. O contador não é mais utilizado pelo framework.
+     */
+    @Deprecated
     protected static short tries = 0;
     private Duration timeSlice = Duration.ofSeconds(20);
     private Duration fixTimeSlice = Duration.ofSeconds(20);
@@ -67,13 +64,11 @@ public abstract class MobileBaseActions {
     }
 
     /**
-     * Metodo para atualizar o PageFactory com novos parâmetros do AppiumDriver<MobileElement>,
-     * valores de timeout e setar o driver que está sendo utilizado no momento, para controle de evidencia.
+     * Metodo para decorar os elementos da tela. Os elementos são localizados no driver da thread atual
+     * no momento do uso, com o timeout vigente da tela; a criação da tela não inicia o driver.
      */
     private void updateDriver() {
-        PageFactory.initElements(new AppiumFieldDecorator(Mobile.getDriver(), timeSlice), this);
-        PageFactoryFlutter.initElements(Mobile.getDriver(), this);
-
+        PageObjectDecorator.decorate(this, () -> timeSlice);
     }
 
     /**
@@ -117,29 +112,162 @@ public abstract class MobileBaseActions {
      * @return boolean
      */
     protected boolean isView(WebElement element, String text, Boolean hasException) {
-        try {
-            if (isFlutterElement(element)) {
-                Mobile.getDriver().executeScript("flutter:waitFor", element, timeSlice.getSeconds() * 1000);
-                return true;
-            }
-            WebDriverWait wait = new WebDriverWait(Mobile.getDriver(), timeSlice);
-            wait.until(ExpectedConditions.visibilityOf(element));
-            return element.isDisplayed() && element.getText().contains(text);
+        Duration timeout = timeSlice;
+        try (Tracer.Span span = Tracer.span("action", "isView")) {
+            return RetryPolicy.getDefault().execute("isView", timeout, () -> {
+                if (isFlutterElement(element)) {
+                    Mobile.getDriver().executeScript("flutter:waitFor", element, Deadline.clip(timeout).toMillis());
+                    return true;
+                }
+                AdaptiveWait.until("isView", timeout, element::isDisplayed);
+                return text.isEmpty() || element.getText().contains(text);
+            });
         } catch (Exception e) {
             if (!hasException) {
                 logger.warn(e.getMessage());
                 return false;
             }
-            if (++tries >= 3) {
-                tries = 0;
-                throw new AutomationException("Não foi possível localizar a tela - %s", e.getMessage());
+            throw new AutomationException("Não foi possível localizar a tela - %s", e.getMessage());
+        } finally {
+            this.timeSlice = fixTimeSlice;
+        }
+    }
+
+    /**
+     * Captura a hierarquia da tela atual com um único 'getPageSource', permitindo consultar vários
+     * elementos localmente, sem um comando Appium por elemento.
+     *
+     * @return ScreenSnapshot
+     */
+    protected ScreenSnapshot takeSnapshot() {
+        try (Tracer.Span span = Tracer.span("action", "takeSnapshot")) {
+            Mobile.setDriverContext(DriverContext.NATIVE_APP);
+            return ScreenSnapshot.capture();
+        }
+    }
+
+    /**
+     * Retorna o localizador declarado na anotação '@AndroidFindBy' ou '@iOSXCUITFindBy' do elemento.
+     *
+     * @param element elemento declarado no PageObject
+     * @return Optional vazio quando o elemento não possui um localizador simples (id, accessibility, className,
+     * xpath ou uiAutomator); {@link ScreenSnapshot#supports(By)} indica se ele pode ser avaliado na fotografia da tela
+     */
+    protected Optional<By> getLocator(WebElement element) {
+        return PageObjectLocators.of(this, element, Mobile.getPlatformName());
+    }
+
+    /**
+     * Verifica na fotografia da tela se o elemento está visível.
+     *
+     * @param snapshot fotografia obtida por {@link #takeSnapshot()}
+     * @param element  elemento declarado no PageObject
+     * @return boolean
+     */
+    protected boolean isView(ScreenSnapshot snapshot, WebElement element) {
+        return getLocator(element).filter(ScreenSnapshot::supports).map(snapshot::isDisplayed)
+                .orElseThrow(() -> new AutomationException("O elemento não possui um localizador suportado pela fotografia da tela"));
+    }
+
+    /**
+     * Sobrecarga do metodo waitAnyOf() utilizando o timeout da tela.
+     *
+     * @param elements elementos declarados no PageObject, em ordem de prioridade
+     * @return Optional com o primeiro elemento visível, vazio quando nenhum aparecer dentro do timeout
+     */
+    protected Optional<ElementMatch> waitAnyOf(WebElement... elements) {
+        return waitAnyOf(timeSlice, elements);
+    }
+
+    /**
+     * Aguarda, em um único ciclo de verificações, que algum dos elementos esteja visível e retorna o primeiro
+     * encontrado. Utilizado em telas com estados mutuamente exclusivos (ex.: variações do popup de permissões),
+     * o custo máximo é de um único timeout, e não de um timeout por elemento. Quando todos os elementos possuem
+     * localizadores suportados pela {@link ScreenSnapshot}, cada verificação consulta todos eles em uma única
+     * fotografia da tela; caso contrário cada elemento é consultado diretamente.
+     *
+     * @param timeout  tempo máximo de espera
+     * @param elements elementos nativos declarados no PageObject, em ordem de prioridade
+     * @return Optional com o primeiro elemento visível, vazio quando nenhum aparecer dentro do timeout
+     */
+    protected Optional<ElementMatch> waitAnyOf(Duration timeout, WebElement... elements) {
+        List<By> locators = new ArrayList<>(elements.length);
+        for (WebElement element : elements) {
+            if (isFlutterElement(element)) {
+                throw new AutomationException("O waitAnyOf não suporta elementos Flutter");
             }
-            return isView(element, text, hasException);
+            locators.add(getLocator(element).filter(ScreenSnapshot::supports).orElse(null));
+        }
+        boolean useSnapshot = !locators.contains(null);
+        try (Tracer.Span span = Tracer.span("action", "waitAnyOf")) {
+            return Optional.of(AdaptiveWait.until("waitAnyOf", timeout, () -> {
+                ScreenSnapshot snapshot = useSnapshot ? takeSnapshot() : null;
+                for (int i = 0; i < elements.length; i++) {
+                    if (snapshot != null ? snapshot.isDisplayed(locators.get(i)) : isDisplayedNow(elements[i])) {
+                        return new ElementMatch(i, elements[i], locators.get(i));
+                    }
+                }
+                return null;
+            }));
+        } catch (TimeoutException e) {
+            logger.warn(e.getMessage());
+            return Optional.empty();
+        } finally {
+            this.timeSlice = fixTimeSlice;
+        }
+    }
+
+    /**
+     * Aguarda, em um único ciclo de verificações, que algum dos localizadores encontre um elemento visível
+     * e retorna o primeiro encontrado. Permite decidir fluxos do tipo "qual destas telas foi apresentada".
+     * Com a fotografia da tela, o elemento retornado é o da mesma posição do primeiro nó visível do localizador,
+     * e não o primeiro elemento do documento, que pode estar oculto.
+     *
+     * @param timeout  tempo máximo de espera
+     * @param locators localizadores dos elementos nativos, em ordem de prioridade
+     * @return Optional com o primeiro elemento visível, vazio quando nenhum aparecer dentro do timeout
+     */
+    protected Optional<ElementMatch> waitAnyOf(Duration timeout, By... locators) {
+        boolean useSnapshot = Arrays.stream(locators).allMatch(ScreenSnapshot::supports);
+        Mobile.setDriverContext(DriverContext.NATIVE_APP);
+        try (Tracer.Span span = Tracer.span("action", "waitAnyOf")) {
+            return Optional.of(AdaptiveWait.until("waitAnyOf", timeout, () -> {
+                ScreenSnapshot snapshot = useSnapshot ? takeSnapshot() : null;
+                for (int i = 0; i < locators.length; i++) {
+                    List<ScreenSnapshot.Element> nodes = snapshot != null ? snapshot.findAll(locators[i]) : null;
+                    int position = nodes != null ? indexOfDisplayed(nodes) : -1;
+                    if (nodes != null && position < 0) {
+                        continue;
+                    }
+                    List<WebElement> elements = Mobile.getDriver().findElements(locators[i]);
+                    if (position >= 0 && elements.size() == nodes.size()) {
+                        return new ElementMatch(i, elements.get(position), locators[i]);
+                    }
+                    for (WebElement element : elements) {
+                        if (isDisplayedNow(element)) {
+                            return new ElementMatch(i, element, locators[i]);
+                        }
+                    }
+                }
+                return null;
+            }));
+        } catch (TimeoutException e) {
+            logger.warn(e.getMessage());
+            return Optional.empty();
         } finally {
             this.timeSlice = fixTimeSlice;
         }
     }
 
+    private static int indexOfDisplayed(List<ScreenSnapshot.Element> nodes) {
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i).isDisplayed()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Sobrecarga para executar um 'click' em um objeto especificado a partir do
      * parâmetro. Obs.: a definição de isException é feita na construção da isView.
@@ -159,25 +287,23 @@ public abstract class MobileBaseActions {
      *                     não estiver visível
      */
     protected void click(WebElement clickable, Boolean hasException) {
-        try {
-            if (isView(clickable, "", hasException)) {
-                if (isFlutterElement(clickable))
-                    clickable.click();
-                else
-                    new Actions(Mobile.getDriver()).click(clickable).build().perform();
-            } else {
-                logger.info("Erro ao clicar no item - ".concat(clickable.getTagName()));
-            }
+        try (Tracer.Span span = Tracer.span("action", "click")) {
+            RetryPolicy.getDefault().run("click", timeSlice, () -> {
+                if (isView(clickable, "", hasException)) {
+                    if (isFlutterElement(clickable))
+                        clickable.click();
+                    else
+                        new Actions(Mobile.getDriver()).click(clickable).build().perform();
+                } else {
+                    logger.info("Erro ao clicar no item - ".concat(clickable.getTagName()));
+                }
+            });
         } catch (NoSuchElementException e) {
             if (!hasException) {
                 logger.error(e.getMessage());
                 return;
             }
-            if (++tries >= 3) {
-                tries = 0;
-                throw new AutomationException("Erro ao clicar no item - ".concat(e.getMessage()));
-            }
-            click(clickable, hasException);
+            throw new AutomationException("Erro ao clicar no item - ".concat(e.getMessage()));
         }
     }
 
@@ -194,36 +320,41 @@ public abstract class MobileBaseActions {
     /**
      * Metodo para preencher um elemento editável com um texto específico, passando
      * o texto e o elemento que deseja manipular, com o adicional de execução de
-     * exceção.
+     * exceção. O campo é clicado antes da digitação; em campos nativos o texto é digitado pelo {@link TextInput},
+     * que escolhe a estratégia de digitação mais rápida para o tipo do campo.
      *
      * @param text         Texto a ser inserido no campo
-     * @param textField    Campo onde será clicado para inserir o texto.
+     * @param textField    Campo onde será inserido o texto.
      * @param hasException Define se o método irá lançar uma exceção se o elemento
      *                     não estiver visível
      */
     protected void setText(String text, WebElement textField, Boolean hasException) {
-        click(textField, hasException);
-
-        if (!isFlutterElement(textField)) {
-            List<WebElement> listEditText = textField.findElements(By.className("android.widget.EditText"));
-            if (listEditText.size() > 0) {
-                WebElement textBox = listEditText.get(0);
-                isView(textBox);
-                textBox.sendKeys(text);
+        try (Tracer.Span span = Tracer.span("action", "setText")) {
+            click(textField, hasException);
+            if (isFlutterElement(textField)) {
+                textField.sendKeys(text);
                 return;
             }
-        }
 
-        textField.sendKeys(text);
+            WebElement textBox = textField;
+            if (Mobile.getPlatformName() == MobilePlatform.ANDROID) {
+                List<WebElement> listEditText = textField.findElements(EDIT_TEXT);
+                if (listEditText.size() > 0) {
+                    textBox = listEditText.get(0);
+                }
+            }
+            TextInput.type(textBox, text);
 
-        try {
-            if (Mobile.getPlatformName() == MobilePlatform.IOS) {
-                Mobile.setDriverContext(DriverContext.NATIVE_APP);
-                Mobile.getDriver().switchTo().activeElement().sendKeys(Keys.RETURN);
-                Utils.wait(1);
+            try {
+                if (Mobile.getPlatformName() == MobilePlatform.IOS) {
+                    Mobile.setDriverContext(DriverContext.NATIVE_APP);
+                    Mobile.getDriver().switchTo().activeElement().sendKeys(Keys.RETURN);
+                    HasOnScreenKeyboard keyboard = (HasOnScreenKeyboard) Mobile.getDriver();
+                    AdaptiveWait.until("keyboardHidden", Duration.ofSeconds(1), () -> !keyboard.isKeyboardShown());
+                }
+            } catch (Exception e) {
+                logger.info("Teclado do dispositivo iOS não foi ocultado. Teclado iOS não localizado.");
             }
-        } catch (Exception e) {
-            logger.info("Teclado do dispositivo iOS não foi ocultado. Teclado iOS não localizado.");
         }
     }
 
@@ -261,7 +392,7 @@ public abstract class MobileBaseActions {
         String text = null;
         try {
             if (isView(fieldElement, "", true)) {
-                text = fieldElement.findElement(By.className("android.widget.EditText")).getAttribute("text");
+                text = fieldElement.findElement(EDIT_TEXT).getAttribute("text");
             }
         } catch (Exception e) {
             throw new AutomationException("Falha ao capturar o texto do elemento [%s]", e.getMessage());
@@ -279,25 +410,37 @@ public abstract class MobileBaseActions {
      *                      tempo de espera
      */
     protected void waitDisappear(WebElement elementToWait, Duration timeSlice, Boolean hasException) {
-        try {
-            if (isFlutterElement(elementToWait)) {
-                Mobile.getDriver().executeScript("flutter:waitForAbsent", elementToWait, timeSlice.getSeconds() * 1000);
-            } else {
-                WebDriverWait wait = new WebDriverWait(Mobile.getDriver(), timeSlice);
-                wait.until(ExpectedConditions.not(ExpectedConditions.visibilityOfAllElements(elementToWait)));
-            }
+        try (Tracer.Span span = Tracer.span("action", "waitDisappear")) {
+            RetryPolicy.getDefault().run("waitDisappear", timeSlice, () -> {
+                if (isFlutterElement(elementToWait)) {
+                    Mobile.getDriver().executeScript("flutter:waitForAbsent", elementToWait, Deadline.clip(timeSlice).toMillis());
+                } else {
+                    AdaptiveWait.until("waitDisappear", timeSlice, () -> !isDisplayedNow(elementToWait));
+                }
+            });
         } catch (Exception e) {
             if (!hasException) {
                 logger.error(e.getMessage());
                 return;
             }
-            if (++tries >= 3) {
-                tries = 0;
-                throw new AutomationException(
-                        "Após aguardar %s segundos o desaparecimento do elemento, o mesmo não desapareceu da tela [%s]",
-                        timeSlice.getSeconds(), e.getMessage());
-            }
-            this.waitDisappear(elementToWait, timeSlice, hasException);
+            throw new AutomationException(
+                    "Após aguardar %s segundos o desaparecimento do elemento, o mesmo não desapareceu da tela [%s]",
+                    timeSlice.getSeconds(), e.getMessage());
+        }
+    }
+
+    /**
+     * Verifica se o elemento está visível no momento, sem aguardar. Elementos que não estão mais na tela
+     * são considerados não visíveis.
+     *
+     * @param element elemento a ser verificado
+     * @return boolean
+     */
+    private boolean isDisplayedNow(WebElement element) {
+        try {
+            return element.isDisplayed();
+        } catch (NotFoundException | StaleElementReferenceException e) {
+            return false;
         }
     }
 
@@ -313,17 +456,11 @@ public abstract class MobileBaseActions {
     protected void scrollMoveTo(WebElement source, WebElement target) {
         if (!isFlutterElement(source) && !isFlutterElement(target)) {
             try {
-                PointerInput finger = new PointerInput(PointerInput.Kind.TOUCH, "finger");
-
-                Sequence scroll = new Sequence(finger, 1);
-                scroll.addAction(finger.createPointerMove(Duration.ofMillis(0), PointerInput.Origin.viewport(),
-                        source.getLocation().getX(), source.getLocation().getY()));
-                scroll.addAction(finger.createPointerDown(1));
-                scroll.addAction(finger.createPointerMove(Duration.ofMillis(700), PointerInput.Origin.viewport(),
-                        source.getLocation().getX(), target.getLocation().getY()));
-                scroll.addAction(finger.createPointerUp(1));
-
-                Mobile.getDriver().perform(Arrays.asList(scroll));
+                Rectangle sourceRect = source.getRect();
+                Rectangle targetRect = target.getRect();
+                Gestures.create()
+                        .swipe(sourceRect.getX(), sourceRect.getY(), sourceRect.getX(), targetRect.getY(), SWIPE_DURATION)
+                        .perform();
             } catch (Exception e) {
                 throw new AutomationException("Elemento para realizar o scroll não encontrado: [%s]", e.getMessage());
             }
@@ -344,17 +481,11 @@ public abstract class MobileBaseActions {
     protected void scrollMoveToHorizontal(WebElement source, WebElement target) {
         if (!isFlutterElement(source) && !isFlutterElement(target)) {
             try {
-                PointerInput finger = new PointerInput(PointerInput.Kind.TOUCH, "finger");
-
-                Sequence scroll = new Sequence(finger, 1);
-                scroll.addAction(finger.createPointerMove(Duration.ofMillis(0), PointerInput.Origin.viewport(),
-                        source.getLocation().getX(), source.getLocation().getY()));
-                scroll.addAction(finger.createPointerDown(1));
-                scroll.addAction(finger.createPointerMove(Duration.ofMillis(700), PointerInput.Origin.viewport(),
-                        target.getLocation().getX(), source.getLocation().getY()));
-                scroll.addAction(finger.createPointerUp(1));
-
-                Mobile.getDriver().perform(Arrays.asList(scroll));
+                Rectangle sourceRect = source.getRect();
+                Rectangle targetRect = target.getRect();
+                Gestures.create()
+                        .swipe(sourceRect.getX(), sourceRect.getY(), targetRect.getX(), sourceRect.getY(), SWIPE_DURATION)
+                        .perform();
             } catch (Exception e) {
                 throw new AutomationException("Elemento para realizar o scroll não encontrado: [%s]", e.getMessage());
             }
@@ -431,6 +562,10 @@ public abstract class MobileBaseActions {
      * Metodo para realizar a ação de rolagem até um elemento específico. Podendo
      * escolher a porcentagem de rolagem da tela, do ponto inicial para o ponto final
      * e também podendo escolher a direção da rolagem.
+     * Com a propriedade 'mobile.scroll.strategy=native' (padrão) a rolagem é feita primeiro pelo próprio device,
+     * em um único comando, e os swipes abaixo são utilizados quando a rolagem nativa não é suportada ou não
+     * localiza o elemento; como os swipes param no fim da lista, após uma rolagem nativa que já percorreu a lista
+     * eles custam poucas rolagens. Com 'mobile.scroll.strategy=swipe' são utilizados somente os swipes.
      *
      * @param element               elemento a ser localizado
      * @param startPointYValue      ponto inicial de rolagem
@@ -442,23 +577,140 @@ public abstract class MobileBaseActions {
      */
     public void scrollToElement(WebElement element, double startPointYValue, double endPointYValue, boolean isScrollUp,
                                 int maximumScrollAttempts) {
-        Duration timeSlice = Duration.ofSeconds(1);
+        try (Tracer.Span span = Tracer.span("action", "scrollToElement")) {
+            if (!"swipe".equalsIgnoreCase(SCROLL_STRATEGY) && scrollToElementNative(element, maximumScrollAttempts)) {
+                scrollElementToMiddleOfScreen(element);
+                return;
+            }
+            scrollToElementBySwipes(element, startPointYValue, endPointYValue, isScrollUp, maximumScrollAttempts);
+        }
+    }
 
-        setTimeSlice(timeSlice);
-        while (!isView(element, "", false) && maximumScrollAttempts > 0) {
+    /**
+     * Rola a tela por swipes até o elemento. Após cada swipe a hierarquia da tela é capturada e comparada com a
+     * anterior: quando são iguais a lista não se moveu (fim da lista) e a rolagem é encerrada sem consumir as
+     * tentativas restantes, ou, com a propriedade 'mobile.scroll.reverseAtEnd=true', continua no sentido oposto.
+     * Quando o localizador do elemento é suportado pela {@link ScreenSnapshot}, a mesma captura é utilizada para
+     * verificar se o elemento está visível. Elementos Flutter utilizam apenas as tentativas.
+     */
+    private void scrollToElementBySwipes(WebElement element, double startPointYValue, double endPointYValue, boolean isScrollUp,
+                                         int maximumScrollAttempts) {
+        Duration timeSlice = Duration.ofSeconds(1);
+        boolean flutter = isFlutterElement(element);
+        Optional<By> locator = flutter ? Optional.empty() : getLocator(element).filter(ScreenSnapshot::supports);
+        ScreenSnapshot snapshot = flutter ? null : takeSnapshot();
+        int swipes = 0;
+        int usefulSwipes = 0;
+        boolean reversed = false;
+        boolean endReached = false;
+
+        while (!isViewWhileScrolling(element, locator, snapshot) && swipes < maximumScrollAttempts) {
             scroll(startPointYValue, endPointYValue, isScrollUp);
-            maximumScrollAttempts--;
-            setTimeSlice(timeSlice);
+            swipes++;
+            if (snapshot == null) {
+                continue;
+            }
+            long previous = snapshot.fingerprint();
+            snapshot = takeSnapshot();
+            if (snapshot.fingerprint() != previous) {
+                usefulSwipes++;
+            } else if (SCROLL_REVERSE_AT_END && !reversed) {
+                reversed = true;
+                isScrollUp = !isScrollUp;
+            } else {
+                endReached = true;
+                break;
+            }
         }
 
         setTimeSlice(timeSlice);
-        if (!isView(element, "", false)) {
+        boolean found = isView(element, "", false);
+        ScrollMetrics.record(swipes, usefulSwipes, found, endReached);
+        if (!found) {
             throw new AutomationException(
-                    String.format("Após realizar a rolagem na tela por %s vezes, o elemento não foi localizado.",
-                            maximumScrollAttempts));
-        } else {
-            scrollElementToMiddleOfScreen(element);
+                    String.format("Após realizar a rolagem na tela por %d vezes (%d com movimento da lista%s), o elemento não foi localizado.",
+                            swipes, usefulSwipes, endReached ? ", fim da lista atingido" : ""));
         }
+        scrollElementToMiddleOfScreen(element);
+    }
+
+    private boolean isViewWhileScrolling(WebElement element, Optional<By> locator, ScreenSnapshot snapshot) {
+        if (snapshot != null && locator.isPresent()) {
+            return snapshot.isDisplayed(locator.get());
+        }
+        setTimeSlice(Duration.ofSeconds(1));
+        return isView(element, "", false);
+    }
+
+    /**
+     * Rola a tela até o elemento com um único comando executado pelo próprio device: 'mobile: scroll' do
+     * UiAutomator2 (UiScrollable, que procura o elemento nos dois sentidos da lista) ou do XCUITest.
+     * Antes do comando a visibilidade do elemento é verificada sem espera, e o comando não é enviado quando o
+     * elemento já está na tela. Retorna false, para que seja utilizada a rolagem por swipes, quando o elemento é
+     * Flutter, o localizador não é suportado pelo comando (ex.: xpath), o comando falha (comando ou argumentos
+     * não suportados, tela sem lista rolável, elemento não localizado, timeout) ou o elemento não está visível
+     * após o comando.
+     *
+     * @param element               elemento a ser localizado
+     * @param maximumScrollAttempts número máximo de rolagens a ser feitas pelo device
+     * @return boolean
+     */
+    private boolean scrollToElementNative(WebElement element, int maximumScrollAttempts) {
+        if (isFlutterElement(element)) {
+            return false;
+        }
+        Optional<HashMap<String, Object>> args = getLocator(element).map(locator -> nativeScrollArguments(locator, maximumScrollAttempts));
+        if (!args.isPresent() || args.get().isEmpty()) {
+            return false;
+        }
+        if (isViewNow(element)) {
+            return true;
+        }
+        try (Tracer.Span span = Tracer.span("action", "nativeScroll")) {
+            Mobile.getDriver().executeScript("mobile: scroll", args.get());
+        } catch (WebDriverException e) {
+            logger.debug("Rolagem nativa não executada, será utilizada a rolagem por swipes - [{}]", e.getMessage());
+            return false;
+        }
+        setTimeSlice(Duration.ofSeconds(1));
+        return isView(element, "", false);
+    }
+
+    /**
+     * Verifica, sem espera, se o elemento está visível: na fotografia da tela quando o localizador é suportado
+     * por ela, ou diretamente no elemento com implicit wait zero.
+     */
+    private boolean isViewNow(WebElement element) {
+        Optional<By> locator = getLocator(element).filter(ScreenSnapshot::supports);
+        if (locator.isPresent()) {
+            return takeSnapshot().isDisplayed(locator.get());
+        }
+        try {
+            return AdaptiveWait.until("isViewNow", Duration.ZERO, () -> isDisplayedNow(element));
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    private HashMap<String, Object> nativeScrollArguments(By locator, int maximumScrollAttempts) {
+        HashMap<String, Object> args = new HashMap<>();
+        if (!(locator instanceof By.Remotable)) {
+            return args;
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        String using = parameters.using();
+        String value = String.valueOf(parameters.value());
+        if (Mobile.getPlatformName() == MobilePlatform.IOS) {
+            if (using.equals("id") || using.equals("accessibility id") || using.equals("name")) {
+                args.put("name", value);
+            }
+        } else if (using.equals("id") || using.equals("accessibility id") || using.equals("class name")
+                || using.equals("-android uiautomator")) {
+            args.put("strategy", using);
+            args.put("selector", value);
+            args.put("maxSwipes", Math.max(1, maximumScrollAttempts));
+        }
+        return args;
     }
 
     /**
@@ -470,24 +722,14 @@ public abstract class MobileBaseActions {
         if (isFlutterElement(element))
             scrollElementToMiddleOfScreenFlutter(element);
         else {
-            Dimension screenSize = Mobile.getDriver().manage().window().getSize();
+            Dimension screenSize = Mobile.getWindowSize();
             int screenX = screenSize.width / 2;
             int screenY = screenSize.height / 2;
             int screenHeight = screenSize.height - 10;
 
-            int elementY = element.getLocation().getY();
+            int elementY = element.getRect().getY();
 
-            PointerInput finger = new PointerInput(PointerInput.Kind.TOUCH, "finger");
-
-            Sequence scroll = new Sequence(finger, 1);
-            scroll.addAction(finger.createPointerMove(Duration.ofMillis(0), PointerInput.Origin.viewport(), screenX,
-                    Math.min(elementY, screenHeight)));
-            scroll.addAction(finger.createPointerDown(1));
-            scroll.addAction(
-                    finger.createPointerMove(Duration.ofMillis(700), PointerInput.Origin.viewport(), screenX, screenY));
-            scroll.addAction(finger.createPointerUp(1));
-
-            Mobile.getDriver().perform(Arrays.asList(scroll));
+            Gestures.create().swipe(screenX, Math.min(elementY, screenHeight), screenX, screenY, SWIPE_DURATION).perform();
         }
     }
 
@@ -517,33 +759,29 @@ public abstract class MobileBaseActions {
      *                         rolagem para baixo
      */
     public void scroll(double startPointYValue, double endPointYValue, boolean isScrollUp) {
-        Mobile.setDriverContext(DriverContext.NATIVE_APP);
-        Dimension windowSize = Mobile.getDriver().manage().window().getSize();
-        int pointX = windowSize.width / 2;
-        int startPointY = (int) ((windowSize.height - 10) * startPointYValue); // 0.80
-        int endPointY = (int) ((windowSize.height - 10) * endPointYValue); // 0.40
-
-        PointerInput finger = new PointerInput(PointerInput.Kind.TOUCH, "finger");
-
-        Sequence scroll = new Sequence(finger, 1);
-        scroll.addAction(finger.createPointerMove(Duration.ofMillis(0), PointerInput.Origin.viewport(), pointX,
-                isScrollUp ? endPointY : startPointY));
-        scroll.addAction(finger.createPointerDown(1));
-        scroll.addAction(finger.createPointerMove(Duration.ofMillis(700), PointerInput.Origin.viewport(), pointX,
-                isScrollUp ? startPointY : endPointY));
-        scroll.addAction(finger.createPointerUp(1));
-
-        Mobile.getDriver().perform(Arrays.asList(scroll));
+        try (Tracer.Span span = Tracer.span("action", "scroll")) {
+            Gestures.performOnScreen(String.format("scroll %s %s %s", startPointYValue, endPointYValue, isScrollUp), windowSize -> {
+                int pointX = windowSize.width / 2;
+                int startPointY = (int) ((windowSize.height - 10) * startPointYValue); // 0.80
+                int endPointY = (int) ((windowSize.height - 10) * endPointYValue); // 0.40
+                return Gestures.create().swipe(pointX, isScrollUp ? endPointY : startPointY,
+                        pointX, isScrollUp ? startPointY : endPointY, SWIPE_DURATION);
+            });
+        }
     }
 
     /**
-     * Metodo para definir o timeout ou alterar em tempo de execução.
+     * Metodo para definir o timeout ou alterar em tempo de execução. Os elementos da tela passam a utilizar
+     * o novo timeout sem que a tela seja decorada novamente, exceto as telas com Widgets, decoradas pelo
+     * AppiumFieldDecorator com um timeout fixo.
      *
      * @param timeSlice tempo de espera em segundos
      */
     public void setTimeSlice(Duration timeSlice) {
-        this.timeSlice = timeSlice;
-        updateDriver();
+        if (!timeSlice.equals(this.timeSlice)) {
+            this.timeSlice = timeSlice;
+            PageObjectDecorator.timeoutChanged(this, () -> timeSlice);
+        }
     }
 
     /**
@@ -553,7 +791,7 @@ public abstract class MobileBaseActions {
      */
     protected void clearField(WebElement fieldElement) {
         if (isView(fieldElement, "")) {
-            fieldElement.findElement(By.className("android.widget.EditText")).clear();
+            fieldElement.findElement(EDIT_TEXT).clear();
         }
     }
 
@@ -568,34 +806,27 @@ public abstract class MobileBaseActions {
     }
 
     /**
-     * Pressiona a tecla TAB um número específico de vezes.
+     * Pressiona a tecla TAB no device um número específico de vezes, em uma única sequência de ações.
      *
      * @param times o número de vezes que a tecla TAB deve ser pressionada.
      */
     protected void pressTab(int times) {
         try {
-            Robot robot = new Robot();
-            for (int i = 0; i < times; i++) {
-                robot.keyPress(KeyEvent.VK_TAB);
-                robot.keyRelease(KeyEvent.VK_TAB);
-                robot.delay(100);
-            }
+            new Actions(Mobile.getDriver()).sendKeys(Keys.TAB.toString().repeat(times)).perform();
         } catch (Exception e) {
             throw new AutomationException("Erro ao pressionar a tecla TAB - ".concat(e.getMessage()));
         }
     }
 
     /**
-     * Envia um texto caractere por caractere usando a classe Actions.
+     * Envia um texto para o campo com foco usando a classe Actions. Todas as teclas do texto são enviadas
+     * em uma única sequência de ações, com um único comando ao Appium Server.
      *
      * @param text o texto a ser enviado.
      */
     protected void sendTextUsingActions(String text) {
         try {
-            Actions actions = new Actions(Mobile.getDriver());
-            for (char c : text.toCharArray()) {
-                actions.sendKeys(String.valueOf(c)).perform();
-            }
+            new Actions(Mobile.getDriver()).sendKeys(text).perform();
         } catch (Exception e) {
             throw new AutomationException("Erro ao enviar texto usando Actions - ".concat(e.getMessage()));
         }
@@ -603,76 +834,31 @@ public abstract class MobileBaseActions {
 
     /**
      * Realiza OCR em uma captura de tela e verifica se um texto específico está
-     * presente.
+     * presente. A imagem inteira e blocos sobrepostos da imagem são reconhecidos em
+     * paralelo, encerrando a verificação assim que o texto é encontrado (ver {@link TiledOcr}).
+     * Capturas idênticas às já verificadas reutilizam o OCR anterior (ver {@link OcrCache}).
      *
      * @param expectedText  o texto que se espera encontrar na captura de tela.
      * @param shouldContain indica se o texto deve ou não estar presente na captura
      *                      de tela.
      * @return true se o texto esperado estiver presente (ou ausente, conforme
-     * especificado), false caso contrário.
-     * @throws AutomationException se ocorrer um erro durante o processo de OCR.
+     * especificado).
+     * @throws AutomationException se ocorrer um erro durante o processo de OCR ou se
+     *                             o resultado for diferente do esperado.
      */
     public boolean verifyTextInScreenshot(String expectedText, boolean shouldContain) {
-        byte[] screenshotBytes = Mobile.getScreenShot();
-        BufferedImage fullImage;
-        try {
-            fullImage = ImageIO.read(new ByteArrayInputStream(screenshotBytes));
-        } catch (IOException e) {
-            throw new AutomationException("Erro ao ler a imagem da captura de tela: " + e.getMessage());
-        }
-
-        BufferedImage preprocessedImage = preprocessImage(fullImage);
-
-        if (tryVerifyTextInScreenshot(preprocessedImage, expectedText, shouldContain)) {
-            return true;
-        }
-
-        int width = preprocessedImage.getWidth();
-        int height = preprocessedImage.getHeight();
-        BufferedImage[] subImages = new BufferedImage[4];
-        subImages[0] = preprocessedImage.getSubimage(0, 0, width / 2, height / 2);
-        subImages[1] = preprocessedImage.getSubimage(width / 2, 0, width / 2, height / 2);
-        subImages[2] = preprocessedImage.getSubimage(0, height / 2, width / 2, height / 2);
-        subImages[3] = preprocessedImage.getSubimage(width / 2, height / 2, width / 2, height / 2);
-
-        for (BufferedImage subImage : subImages) {
-            if (tryVerifyTextInScreenshot(subImage, expectedText, shouldContain)) {
-                return true;
+        try (Tracer.Span span = Tracer.span("action", "verifyTextInScreenshot")) {
+            OcrCache.Frame frame = OcrCache.frame(Mobile.getScreenShot());
+            boolean containsText = TiledOcr.contains(frame, expectedText);
+            if (shouldContain && !containsText) {
+                throw new AutomationException(
+                        "Texto não encontrado na captura de tela nem em nenhum dos seus blocos: " + expectedText);
             }
-        }
-
-        if (!shouldContain) {
-            return true;
-        }
-
-        throw new AutomationException(
-                "Texto não encontrado na captura de tela mesmo após 5 tentativas: " + expectedText);
-    }
-
-    /**
-     * Tenta verificar o texto em uma captura de tela.
-     *
-     * @param image         a imagem da captura de tela.
-     * @param expectedText  o texto que se espera encontrar na captura de tela.
-     * @param shouldContain indica se o texto deve ou não estar presente na captura
-     *                      de tela.
-     * @return true se o texto esperado estiver presente (ou ausente, conforme
-     * especificado), false caso contrário.
-     * @throws AutomationException se ocorrer um erro durante o processo de OCR.
-     */
-    private boolean tryVerifyTextInScreenshot(BufferedImage image, String expectedText, boolean shouldContain) {
-        String ocrResult = performOCROnScreenshot(image);
-        boolean containsText = ocrResult != null && ocrResult.contains(expectedText);
-
-        if (shouldContain) {
-            return containsText;
-        } else {
-            if (containsText) {
+            if (!shouldContain && containsText) {
                 throw new AutomationException(
                         "Texto encontrado na captura de tela quando não deveria: " + expectedText);
-            } else {
-                return true;
             }
+            return true;
         }
     }
 
@@ -683,103 +869,77 @@ public abstract class MobileBaseActions {
      * @return o texto extraído da imagem usando OCR.
      * @throws AutomationException se ocorrer um erro durante o processo de OCR.
      */
-    private String performOCROnScreenshot(BufferedImage image) {
-        ITesseract tesseract = new Tesseract();
-        tesseract.setDatapath("src/main/resources/drivers/tessdata");
-        tesseract.setLanguage("por");
-
-        try {
-            return tesseract.doOCR(image);
-        } catch (TesseractException e) {
-            throw new AutomationException("Erro ao realizar OCR: " + e.getMessage());
+    static String performOCROnScreenshot(BufferedImage image) {
+        try (Tracer.Span span = Tracer.span("ocr", "performOCR")) {
+            return OcrEngines.withEngine(engine -> engine.doOCR(image));
         }
     }
 
     /**
-     * Realiza OCR em uma captura de tela e retorna a posição do texto encontrado.
+     * Realiza OCR em uma captura de tela e retorna a posição do texto encontrado, em pixels da captura.
+     * Para tocar no texto utilize {@link #findTextPositionOnDevice(String)}, que converte a posição para
+     * coordenadas do device.
      *
      * @param text o texto que se espera encontrar na captura de tela.
-     * @return o ponto (x, y) da posição do texto encontrado.
+     * @return o ponto (x, y) do canto superior esquerdo do texto na captura de tela.
      * @throws AutomationException se ocorrer um erro durante o processo de OCR ou
      *                             se o texto não for encontrado.
      */
-    public Point findTextPositionInScreenshot(String text) {
-        byte[] screenshotBytes = Mobile.getScreenShot();
-        BufferedImage image;
-        try {
-            image = ImageIO.read(new ByteArrayInputStream(screenshotBytes));
-            image = preprocessImage(image);
-        } catch (IOException e) {
-            throw new AutomationException("Erro ao ler a imagem da captura de tela: " + e.getMessage());
+    public java.awt.Point findTextPositionInScreenshot(String text) {
+        try (Tracer.Span span = Tracer.span("action", "findTextPositionInScreenshot")) {
+            return OcrLayout.capture().findInScreenshot(text).map(rect -> rect.getLocation()).orElseThrow(() ->
+                    new AutomationException("Texto não encontrado na captura de tela: " + text));
         }
+    }
 
-        ITesseract tesseract = new Tesseract();
-        tesseract.setDatapath("src/main/resources/drivers/tessdata");
-        tesseract.setLanguage("por");
-
-        List<Word> words;
-        try {
-            words = tesseract.getWords(image, ITessAPI.TessPageIteratorLevel.RIL_WORD);
-        } catch (Exception e) {
-            throw new AutomationException("Erro ao realizar OCR: " + e.getMessage());
+    /**
+     * Realiza OCR em uma captura de tela e retorna o centro do texto encontrado em coordenadas do device,
+     * considerando a densidade da tela e o deslocamento das barras de sistema.
+     *
+     * @param text o texto que se espera encontrar na captura de tela.
+     * @return o ponto (x, y) do centro do texto na tela do device.
+     * @throws AutomationException se ocorrer um erro durante o processo de OCR ou
+     *                             se o texto não for encontrado.
+     */
+    public Point findTextPositionOnDevice(String text) {
+        try (Tracer.Span span = Tracer.span("action", "findTextPositionOnDevice")) {
+            return OcrLayout.capture().findOnDevice(text).orElseThrow(() ->
+                    new AutomationException("Texto não encontrado na captura de tela: " + text));
         }
+    }
 
-        for (Word word : words) {
-            if (word.getText().equalsIgnoreCase(text)) {
-                Rectangle rect = word.getBoundingBox();
-                return new Point(rect.x, rect.y);
-            }
+    /**
+     * Realiza um clique no texto encontrado na captura de tela. O OCR da tela é reutilizado entre cliques
+     * consecutivos enquanto a tela não mudar.
+     *
+     * @param text o texto que se espera encontrar na captura de tela para clicar.
+     * @throws AutomationException se ocorrer um erro durante o processo.
+     */
+    public void clickOnText(String text) {
+        try (Tracer.Span span = Tracer.span("action", "clickOnText")) {
+            OcrLayout.capture().tap(text);
         }
-
-        throw new AutomationException("Texto não encontrado na captura de tela: " + text);
     }
 
     /**
-     * Realiza um duplo clique na posição do texto encontrado na captura de tela.
+     * Realiza um duplo clique na posição do texto encontrado na captura de tela, com um único comando W3C.
      *
      * @param text o texto que se espera encontrar na captura de tela para clicar.
      * @throws AutomationException se ocorrer um erro durante o processo.
      */
     public void doubleClickOnText(String text) {
-        Point point = findTextPositionInScreenshot(text);
-        try {
-            Robot robot = new Robot();
-            robot.mouseMove(point.x, point.y);
-            robot.mousePress(InputEvent.BUTTON1_DOWN_MASK);
-            robot.mouseRelease(InputEvent.BUTTON1_DOWN_MASK);
-            robot.mousePress(InputEvent.BUTTON1_DOWN_MASK);
-            robot.mouseRelease(InputEvent.BUTTON1_DOWN_MASK);
-        } catch (AWTException e) {
-            throw new AutomationException("Erro ao realizar o duplo clique: " + e.getMessage());
+        try (Tracer.Span span = Tracer.span("action", "doubleClickOnText")) {
+            OcrLayout.capture().doubleTap(text);
         }
     }
 
     /**
-     * Preprocessa a imagem para melhorar a precisão do OCR.
+     * Preprocessa a imagem para melhorar a precisão do OCR (ver {@link OcrPreprocessor}).
      *
      * @param image a imagem original.
      * @return a imagem preprocessada.
      */
-    private BufferedImage preprocessImage(BufferedImage image) {
-        BufferedImage grayscaleImage = new BufferedImage(image.getWidth(), image.getHeight(),
-                BufferedImage.TYPE_BYTE_GRAY);
-        Graphics2D graphics = grayscaleImage.createGraphics();
-        graphics.drawImage(image, 0, 0, null);
-        graphics.dispose();
-
-        RescaleOp rescaleOp = new RescaleOp(1.5f, 0, null);
-        rescaleOp.filter(grayscaleImage, grayscaleImage);
-
-        for (int y = 0; y < grayscaleImage.getHeight(); y++) {
-            for (int x = 0; x < grayscaleImage.getWidth(); x++) {
-                int rgb = grayscaleImage.getRGB(x, y);
-                int gray = (rgb >> 16) & 0xff;
-                gray = gray > 128 ? 255 : 0;
-                rgb = (gray << 16) | (gray << 8) | gray;
-                grayscaleImage.setRGB(x, y, rgb);
-            }
-        }
-
-        return grayscaleImage;
+    static BufferedImage preprocessImage(BufferedImage image) {
+        return OcrPreprocessor.process(image);
     }
 }
@@ -1,27 +1,21 @@
 package mobile;
 
-import flutter.PageFactoryFlutter;
-import org.openqa.selenium.support.PageFactory;
-
-
-
-import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import java.time.Duration;
 
 public abstract class MobileBaseScreen {
 
+	private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(1);
+
 	public MobileBaseScreen() {
 		updateDriver();
 	}
 
 	/**
-	 * Metodo para atualizar o PageFactory com novas parametros do
-	 * AppiumDriver<MobileElement>, valores de timeout e setar o driver que está
-	 * sendo utilizado no momento, para controle de evidencia.
+	 * Metodo para decorar os elementos da tela. Os elementos são localizados no driver
+	 * da thread atual no momento do uso; a criação da tela não inicia o driver.
 	 */
 	private void updateDriver() {
-		PageFactory.initElements(new AppiumFieldDecorator(Mobile.getDriver()), this);
-		PageFactoryFlutter.initElements(Mobile.getDriver(), this);
-
+		PageObjectDecorator.decorate(this, () -> DEFAULT_TIMEOUT);
 	}
 
 }
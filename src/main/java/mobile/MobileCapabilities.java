@@ -6,10 +6,10 @@ import data.PropertiesLoader;
 
 public class MobileCapabilities {
 
-    private String platformName = getInternalProperty(String.format("mobile.appium.capability.%s.platformName", Mobile.getPlatformName().toString().toLowerCase()));
-    private String automationName = getInternalProperty(String.format("mobile.appium.capability.%s.automationName", Mobile.getPlatformName().toString().toLowerCase()));
-    private String platformVersion = getExternalProperty(String.format("mobile.appium.capability.%s.platformVersion", Mobile.getPlatformName().toString().toLowerCase()));
-    private String deviceName = getExternalProperty(String.format("mobile.appium.capability.%s.deviceName", Mobile.getPlatformName().toString().toLowerCase()));
+    private String platformName;
+    private String automationName;
+    private String platformVersion;
+    private String deviceName;
     private String appPackage = getExternalProperty("mobile.appium.capability.appPackage");
     private String appActivity = getExternalProperty("mobile.appium.capability.appActivity");
     private String noReset = getInternalProperty("mobile.appium.capability.noReset");
@@ -21,18 +21,28 @@ public class MobileCapabilities {
     private String bundleId = getExternalProperty("mobile.appium.capability.bundleId");
     private String autoGrantPermissions = getInternalProperty("mobile.appium.capability.autoGrantPermissions");
     private String autoAcceptAlerts = getInternalProperty("mobile.appium.capability.autoAcceptAlerts");
-    private String app = getExternalProperty(String.format("mobile.appium.capability.%s.app", Mobile.getPlatformName().toString().toLowerCase()));
-
-    private static MobileCapabilities instance;
-
-    private MobileCapabilities() {
-    }
-
+    private String app;
+
+    MobileCapabilities(MobilePlatform mobilePlatform) {
+        String platform = mobilePlatform.toString().toLowerCase();
+        platformName = getInternalProperty(String.format("mobile.appium.capability.%s.platformName", platform));
+        automationName = getInternalProperty(String.format("mobile.appium.capability.%s.automationName", platform));
+        platformVersion = getExternalProperty(String.format("mobile.appium.capability.%s.platformVersion", platform));
+        deviceName = getExternalProperty(String.format("mobile.appium.capability.%s.deviceName", platform));
+        app = getExternalProperty(String.format("mobile.appium.capability.%s.app", platform));
+    }
+
+    /**
+     * Retorna as capabilities da sessão vinculada à thread atual no {@link DriverRegistry}.
+     *
+     * @return MobileCapabilities
+     */
     public static MobileCapabilities getInstance() {
-        if (instance == null) {
-            instance = new MobileCapabilities();
+        DriverSession session = DriverRegistry.current();
+        if (session.getMobileCapabilities() == null) {
+            session.setMobileCapabilities(new MobileCapabilities(session.getPlatformName()));
         }
-        return instance;
+        return session.getMobileCapabilities();
     }
 
     public String getPlatformName() {
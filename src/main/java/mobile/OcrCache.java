@@ -0,0 +1,375 @@
+package mobile;
+
+import data.InternalPropertiesLoader;
+import exceptions.AutomationException;
+import net.sourceforge.tess4j.Word;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.Tracer;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache LRU dos resultados de OCR (textos reconhecidos e posições das palavras) por tela. Cada captura de tela é
+ * identificada pelo tamanho e pelo SHA-256 dos bytes, que dispensam a decodificação da imagem quando a captura é
+ * idêntica. As telas são mantidas por sessão ({@link DriverSession}), de modo que capturas de devices diferentes
+ * nunca compartilham resultados, e são descartadas quando o driver da sessão é finalizado.
+ * <p>
+ * Opcionalmente, as telas também podem ser comparadas por um hash perceptual da imagem decodificada (diferença de
+ * luminância entre células vizinhas de uma grade de 91x200, desconsiderando a barra de status), que considera
+ * iguais as telas com pequenas diferenças, como a troca do relógio ou o cursor piscando. Como a troca de um único
+ * caractere também pode não alterar o hash, a comparação perceptual fica desligada por padrão e, quando ligada,
+ * apenas as posições das palavras são reaproveitadas: os textos usados nas verificações são sempre reconhecidos
+ * novamente.
+ * Configurado pelas propriedades do arquivo configuration_core.properties:
+ * <ul>
+ *     <li>mobile.ocr.cache.size - quantidade de telas mantidas (padrão 16; 0 desliga o cache);</li>
+ *     <li>mobile.ocr.cache.tolerance - bits diferentes, dos 18000 do hash, aceitos entre telas iguais (padrão -1:
+ *     um valor negativo desliga a comparação perceptual, mantendo apenas as capturas idênticas);</li>
+ *     <li>mobile.ocr.cache.ignoreTop - fração superior da tela fora do hash, a barra de status (padrão 0.05).</li>
+ * </ul>
+ * O registro dos acertos é feito no {@link MetricsRegistry} como 'ocrCache' e pode ser desligado pela propriedade
+ * 'mobile.metrics.ocrCache'.
+ */
+public final class OcrCache {
+
+    static final Logger logger = LogManager.getLogger(OcrCache.class);
+
+    private static final int HASH_COLUMNS = 91;
+    private static final int HASH_ROWS = 200;
+
+    private static final InternalPropertiesLoader pLoader = new InternalPropertiesLoader("configuration_core.properties");
+    private static final int SIZE = Integer.parseInt(pLoader.getValue("mobile.ocr.cache.size", "16").trim());
+    private static final int TOLERANCE = Integer.parseInt(pLoader.getValue("mobile.ocr.cache.tolerance", "-1").trim());
+    private static final double IGNORE_TOP = Double.parseDouble(pLoader.getValue("mobile.ocr.cache.ignoreTop", "0.05").trim());
+
+    private static final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            if (size() > SIZE) {
+                if (isActive) evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private static final LongAdder exactHits = new LongAdder();
+    private static final LongAdder perceptualHits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder evictions = new LongAdder();
+    private static final LongAdder reused = new LongAdder();
+    private static final LongAdder recognized = new LongAdder();
+    private static final boolean isActive = MetricsRegistry.register("ocrCache", OcrCache::getSummary,
+            () -> exactHits.sum() + perceptualHits.sum() + misses.sum() > 0, OcrCache::reset);
+
+    private OcrCache() {
+    }
+
+    /**
+     * Retorna a tela correspondente à captura, reaproveitando os resultados de OCR de uma tela igual já
+     * reconhecida na sessão da thread atual.
+     *
+     * @param screenshot bytes da captura de tela (PNG)
+     * @return Frame
+     */
+    public static Frame frame(byte[] screenshot) {
+        return frame(DriverRegistry.current(), screenshot, TOLERANCE);
+    }
+
+    static Frame frame(DriverSession session, byte[] screenshot, int tolerance) {
+        try (Tracer.Span span = Tracer.span("ocr", "cacheLookup")) {
+            byte[] digest = digest(screenshot);
+            synchronized (entries) {
+                for (Entry entry : entries.values()) {
+                    if (entry.session == session && entry.length == screenshot.length && Arrays.equals(entry.digest, digest)) {
+                        entries.get(entry.id);
+                        if (isActive) exactHits.increment();
+                        return new Frame(entry, screenshot, null, false);
+                    }
+                }
+            }
+
+            BufferedImage image = decode(screenshot);
+            long[] hash = tolerance >= 0 ? hash(image) : null;
+            synchronized (entries) {
+                Entry closest = null;
+                int closestDistance = Integer.MAX_VALUE;
+                for (Entry entry : entries.values()) {
+                    if (hash != null && entry.hash != null && entry.session == session && entry.width == image.getWidth() && entry.height == image.getHeight()) {
+                        int distance = distance(entry.hash, hash);
+                        if (distance < closestDistance) {
+                            closest = entry;
+                            closestDistance = distance;
+                        }
+                    }
+                }
+                if (closest != null && closestDistance <= tolerance) {
+                    entries.get(closest.id);
+                    if (isActive) perceptualHits.increment();
+                    logger.debug("Tela reconhecida pelo hash perceptual ({} bits diferentes)", closestDistance);
+                    return new Frame(closest, screenshot, image, true);
+                }
+
+                Entry entry = new Entry(sequence.incrementAndGet(), session, screenshot.length, digest, hash, image.getWidth(), image.getHeight());
+                if (SIZE > 0) {
+                    entries.put(entry.id, entry);
+                }
+                if (isActive) misses.increment();
+                return new Frame(entry, screenshot, image, false);
+            }
+        }
+    }
+
+    /**
+     * Descarta as telas da sessão informada, chamado quando o driver da sessão é finalizado.
+     *
+     * @param session sessão registrada no {@link DriverRegistry}
+     */
+    static void evict(DriverSession session) {
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.session == session);
+        }
+    }
+
+    /**
+     * Descarta todas as telas mantidas.
+     */
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Retorna o resumo do cache.
+     *
+     * @return String
+     */
+    public static String getSummary() {
+        long hits = exactHits.sum() + perceptualHits.sum();
+        long total = hits + misses.sum();
+        StringBuilder summary = new StringBuilder("Cache de OCR:\n");
+        summary.append(String.format("%-10s %12s %8s %8s %10s %14s %12s%n", "idênticas", "perceptuais", "falhas", "acerto%",
+                "descartes", "OCR evitados", "OCR feitos"));
+        summary.append(String.format("%-10d %12d %8d %8.1f %10d %14d %12d%n", exactHits.sum(), perceptualHits.sum(), misses.sum(),
+                total == 0 ? 0 : 100.0 * hits / total, evictions.sum(), reused.sum(), recognized.sum()));
+        return summary.toString();
+    }
+
+    /**
+     * Descarta os contadores registrados.
+     */
+    public static void reset() {
+        exactHits.reset();
+        perceptualHits.reset();
+        misses.reset();
+        evictions.reset();
+        reused.reset();
+        recognized.reset();
+    }
+
+    /**
+     * Hash perceptual: a imagem, abaixo da fração IGNORE_TOP, é dividida em uma grade de HASH_COLUMNS x HASH_ROWS
+     * células e cada bit indica se a luminância média de uma célula é menor que a da célula à sua direita.
+     */
+    static long[] hash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int top = Math.min(height - 1, (int) (height * Math.max(0, IGNORE_TOP)));
+        byte[] gray = OcrPreprocessor.grayscale(image);
+
+        int[] cellOfColumn = new int[width];
+        int[] cellWidths = new int[HASH_COLUMNS];
+        for (int x = 0; x < width; x++) {
+            cellOfColumn[x] = (int) ((long) x * HASH_COLUMNS / width);
+            cellWidths[cellOfColumn[x]]++;
+        }
+        long[] sums = new long[HASH_COLUMNS * HASH_ROWS];
+        for (int y = top; y < height; y++) {
+            int offset = (int) ((long) (y - top) * HASH_ROWS / (height - top)) * HASH_COLUMNS;
+            for (int x = 0, pixel = y * width; x < width; x++, pixel++) {
+                sums[offset + cellOfColumn[x]] += gray[pixel] & 0xff;
+            }
+        }
+
+        long[] hash = new long[(HASH_ROWS * (HASH_COLUMNS - 1) + 63) / 64];
+        int bit = 0;
+        for (int row = 0; row < HASH_ROWS; row++) {
+            for (int column = 0; column < HASH_COLUMNS - 1; column++, bit++) {
+                long left = sums[row * HASH_COLUMNS + column] * cellWidths[column + 1];
+                long right = sums[row * HASH_COLUMNS + column + 1] * cellWidths[column];
+                if (left < right) {
+                    hash[bit >> 6] |= 1L << (bit & 63);
+                }
+            }
+        }
+        return hash;
+    }
+
+    static int distance(long[] a, long[] b) {
+        int distance = 0;
+        for (int i = 0; i < a.length; i++) {
+            distance += Long.bitCount(a[i] ^ b[i]);
+        }
+        return distance;
+    }
+
+    private static BufferedImage decode(byte[] screenshot) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(screenshot));
+            if (image == null) {
+                throw new IOException("formato de imagem não suportado");
+            }
+            return image;
+        } catch (IOException e) {
+            throw new AutomationException("Erro ao ler a imagem da captura de tela: %s", e.getMessage());
+        }
+    }
+
+    private static byte[] digest(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Resultados de OCR de uma tela, compartilhados pelas capturas consideradas iguais.
+     */
+    private static final class Entry {
+        private final long id;
+        private final DriverSession session;
+        private final int length;
+        private final byte[] digest;
+        private final long[] hash;
+        private final int width;
+        private final int height;
+        private final Map<String, String> texts = new ConcurrentHashMap<>();
+        private volatile List<Word> words;
+
+        private Entry(long id, DriverSession session, int length, byte[] digest, long[] hash, int width, int height) {
+            this.id = id;
+            this.session = session;
+            this.length = length;
+            this.digest = digest;
+            this.hash = hash;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    /**
+     * Uma captura de tela e os resultados de OCR da sua tela. A imagem só é decodificada e pré-processada quando
+     * algum resultado ainda não reconhecido é solicitado.
+     */
+    public static final class Frame {
+        private final Entry entry;
+        private final byte[] screenshot;
+        private final boolean perceptual;
+        private BufferedImage image;
+        private BufferedImage preprocessed;
+
+        private Frame(Entry entry, byte[] screenshot, BufferedImage image, boolean perceptual) {
+            this.entry = entry;
+            this.screenshot = screenshot;
+            this.image = image;
+            this.perceptual = perceptual;
+        }
+
+        public int getWidth() {
+            return entry.width;
+        }
+
+        public int getHeight() {
+            return entry.height;
+        }
+
+        /**
+         * Retorna a imagem da captura pré-processada para o OCR.
+         *
+         * @return BufferedImage
+         */
+        public synchronized BufferedImage getPreprocessedImage() {
+            if (preprocessed == null) {
+                if (image == null) {
+                    image = decode(screenshot);
+                }
+                preprocessed = MobileBaseActions.preprocessImage(image);
+            }
+            return preprocessed;
+        }
+
+        /**
+         * Indica se a tela foi associada a uma captura anterior apenas pelo hash perceptual.
+         *
+         * @return boolean
+         */
+        public boolean isPerceptual() {
+            return perceptual;
+        }
+
+        /**
+         * Retorna o texto já reconhecido para a região informada. Em telas associadas apenas pelo hash perceptual
+         * o texto nunca é reaproveitado, pois a captura pode conter um valor diferente do reconhecido.
+         *
+         * @param region nome da região (ex.: um bloco do {@link TiledOcr})
+         * @return texto ou null quando a região ainda não foi reconhecida
+         */
+        public String getText(String region) {
+            if (perceptual) {
+                return null;
+            }
+            String text = entry.texts.get(region);
+            if (text != null && isActive) reused.increment();
+            return text;
+        }
+
+        /**
+         * Registra o texto reconhecido para a região informada. O texto de telas associadas apenas pelo hash
+         * perceptual não é mantido, pois pertence a uma captura diferente da registrada no cache.
+         *
+         * @param region nome da região
+         * @param text   texto reconhecido
+         */
+        public void putText(String region, String text) {
+            if (!perceptual) {
+                entry.texts.put(region, text);
+            }
+            if (isActive) recognized.increment();
+        }
+
+        /**
+         * Retorna as palavras da tela, reconhecendo-as na primeira solicitação.
+         *
+         * @param recognizer reconhecimento das palavras a partir desta tela
+         * @return List
+         */
+        public List<Word> getWords(Function<Frame, List<Word>> recognizer) {
+            List<Word> words = entry.words;
+            if (words != null) {
+                if (isActive) reused.increment();
+                return words;
+            }
+            words = recognizer.apply(this);
+            entry.words = words;
+            if (isActive) recognized.increment();
+            return words;
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package mobile;
+
+import com.sun.jna.Pointer;
+import data.InternalPropertiesLoader;
+import exceptions.AutomationException;
+import net.sourceforge.tess4j.ITessAPI;
+import net.sourceforge.tess4j.TessAPI1;
+import net.sourceforge.tess4j.Word;
+import net.sourceforge.tess4j.util.ImageIOHelper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.Tracer;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Pool de motores de OCR do Tesseract. Cada motor mantém o modelo do idioma carregado entre as execuções e é
+ * utilizado por uma única thread de cada vez, evitando a inicialização do modelo a cada OCR. Os arquivos
+ * '.traineddata' são lidos do classpath (recursos 'drivers/tessdata') uma única vez e copiados para um diretório
+ * de cache, sendo reaproveitados nas execuções seguintes enquanto o checksum SHA-256 da cópia conferir com o do
+ * recurso. Configurado pelas propriedades do arquivo configuration_core.properties:
+ * <ul>
+ *     <li>mobile.ocr.language - idiomas do OCR, separados por '+' (padrão por);</li>
+ *     <li>mobile.ocr.datapath - diretório tessdata a ser utilizado diretamente, sem a cópia do classpath;</li>
+ *     <li>mobile.ocr.cacheDir - diretório de cache dos modelos (padrão 'mobile-tessdata' no diretório temporário);</li>
+ *     <li>mobile.ocr.pool.size - quantidade máxima de motores (padrão o menor entre 4 e o número de processadores);</li>
+ *     <li>mobile.ocr.pool.warmup - motores inicializados em segundo plano na inicialização da sessão mobile (padrão 0:
+ *     os motores são inicializados no primeiro OCR);</li>
+ *     <li>mobile.ocr.pool.timeout - segundos de espera por um motor livre (padrão 60).</li>
+ * </ul>
+ * O registro dos empréstimos é feito no {@link MetricsRegistry} como 'ocr' e pode ser desligado pela propriedade
+ * 'mobile.metrics.ocr'.
+ */
+public final class OcrEngines {
+
+    static final Logger logger = LogManager.getLogger(OcrEngines.class);
+
+    private static final String RESOURCE_DIR = "drivers/tessdata/";
+    private static final String LEGACY_DATAPATH = "src/main/resources/drivers/tessdata";
+
+    private static final InternalPropertiesLoader pLoader = new InternalPropertiesLoader("configuration_core.properties");
+    private static final String LANGUAGE = pLoader.getValue("mobile.ocr.language", "por").trim();
+    private static final String DATAPATH = pLoader.getValue("mobile.ocr.datapath", "").trim();
+    private static final String CACHE_DIR = pLoader.getValue("mobile.ocr.cacheDir",
+            Paths.get(System.getProperty("java.io.tmpdir"), "mobile-tessdata").toString()).trim();
+    private static final int POOL_SIZE = Math.max(1, Integer.parseInt(pLoader.getValue("mobile.ocr.pool.size",
+            String.valueOf(Math.min(4, Runtime.getRuntime().availableProcessors()))).trim()));
+    private static final int WARMUP = Integer.parseInt(pLoader.getValue("mobile.ocr.pool.warmup", "0").trim());
+    private static final long TIMEOUT = Long.parseLong(pLoader.getValue("mobile.ocr.pool.timeout", "60").trim());
+
+    private static final BlockingQueue<Engine> idle = new LinkedBlockingQueue<>();
+    private static final AtomicInteger engines = new AtomicInteger();
+    private static final AtomicBoolean warmedUp = new AtomicBoolean();
+    private static volatile String datapath;
+
+    private static final LongAdder created = new LongAdder();
+    private static final LongAdder initNanos = new LongAdder();
+    private static final LongAdder borrowed = new LongAdder();
+    private static final LongAdder returned = new LongAdder();
+    private static final LongAdder discarded = new LongAdder();
+    private static final LongAdder waited = new LongAdder();
+    private static final LongAdder waitNanos = new LongAdder();
+    private static final boolean isActive = MetricsRegistry.register("ocr", OcrEngines::getSummary,
+            () -> created.sum() > 0, OcrEngines::reset);
+
+    private OcrEngines() {
+    }
+
+    /**
+     * Executa uma tarefa com um motor do pool, devolvendo-o ao final. Motores que falham são descartados.
+     *
+     * @param task tarefa executada com o motor emprestado
+     * @return resultado da tarefa
+     */
+    public static <T> T withEngine(Function<Engine, T> task) {
+        Engine engine = borrow();
+        boolean healthy = false;
+        try {
+            T result = task.apply(engine);
+            healthy = true;
+            return result;
+        } finally {
+            release(engine, healthy);
+        }
+    }
+
+    /**
+     * Inicia, em uma thread em segundo plano, a inicialização dos motores configurados em 'mobile.ocr.pool.warmup',
+     * uma única vez por execução. O retorno é imediato, sem aguardar o carregamento dos modelos. Falhas são apenas
+     * registradas no log, pois o OCR é opcional para a maioria dos cenários.
+     */
+    static void warmup() {
+        if (WARMUP <= 0 || !warmedUp.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                int count = 0;
+                while (count < Math.min(WARMUP, POOL_SIZE) && reserve()) {
+                    idle.offer(create());
+                    count++;
+                }
+                logger.debug("{} motor(es) de OCR inicializado(s)", count);
+            } catch (RuntimeException | LinkageError e) {
+                logger.warn("Não foi possível inicializar os motores de OCR - [{}]", e.getMessage());
+            }
+        }, "ocr-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Retorna a quantidade máxima de motores do pool.
+     *
+     * @return int
+     */
+    static int size() {
+        return POOL_SIZE;
+    }
+
+    /**
+     * Finaliza os motores livres, liberando os modelos carregados.
+     */
+    public static void shutdown() {
+        Engine engine;
+        while ((engine = idle.poll()) != null) {
+            engines.decrementAndGet();
+            engine.close();
+        }
+    }
+
+    /**
+     * Retorna o resumo dos empréstimos dos motores.
+     *
+     * @return String
+     */
+    public static String getSummary() {
+        long borrows = borrowed.sum();
+        StringBuilder summary = new StringBuilder("Motores de OCR:\n");
+        summary.append(String.format("%-8s %14s %12s %10s %10s %12s %16s%n", "criados", "inicialização", "empréstimos",
+                "devolvidos", "descartes", "com espera", "espera média ms"));
+        summary.append(String.format("%-8d %12d ms %12d %10d %10d %12d %16.1f%n", created.sum(), initNanos.sum() / 1_000_000,
+                borrows, returned.sum(), discarded.sum(), waited.sum(), borrows == 0 ? 0 : waitNanos.sum() / 1_000_000.0 / borrows));
+        return summary.toString();
+    }
+
+    /**
+     * Descarta os contadores registrados.
+     */
+    public static void reset() {
+        created.reset();
+        initNanos.reset();
+        borrowed.reset();
+        returned.reset();
+        discarded.reset();
+        waited.reset();
+        waitNanos.reset();
+    }
+
+    static Engine borrow() {
+        long start = System.nanoTime();
+        Engine engine = idle.poll();
+        if (engine == null) {
+            if (reserve()) {
+                engine = create();
+            } else {
+                if (isActive) waited.increment();
+                try {
+                    engine = idle.poll(TIMEOUT, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new AutomationException("Interrompido aguardando um motor de OCR");
+                }
+                if (engine == null) {
+                    throw new AutomationException("Nenhum dos %d motores de OCR foi liberado em %d segundos", POOL_SIZE, TIMEOUT);
+                }
+            }
+        }
+        if (isActive) {
+            borrowed.increment();
+            waitNanos.add(System.nanoTime() - start);
+        }
+        return engine;
+    }
+
+    static void release(Engine engine, boolean healthy) {
+        if (healthy) {
+            engine.clear();
+            idle.offer(engine);
+            if (isActive) returned.increment();
+        } else {
+            engines.decrementAndGet();
+            engine.close();
+            if (isActive) discarded.increment();
+        }
+    }
+
+    private static boolean reserve() {
+        int current;
+        do {
+            current = engines.get();
+            if (current >= POOL_SIZE) {
+                return false;
+            }
+        } while (!engines.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private static Engine create() {
+        long start = System.nanoTime();
+        try (Tracer.Span span = Tracer.span("ocr", "initEngine")) {
+            Engine engine = new Engine(datapath(), LANGUAGE);
+            created.increment();
+            initNanos.add(System.nanoTime() - start);
+            return engine;
+        } catch (RuntimeException | LinkageError e) {
+            engines.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Resolve o diretório tessdata uma única vez: o diretório configurado, a cópia em cache dos recursos do
+     * classpath ou, quando os modelos não estão no classpath, o diretório de recursos do projeto.
+     */
+    static String datapath() {
+        if (datapath == null) {
+            synchronized (OcrEngines.class) {
+                if (datapath == null) {
+                    datapath = resolveDatapath();
+                    logger.debug("Modelos do OCR em {}", datapath);
+                }
+            }
+        }
+        return datapath;
+    }
+
+    private static String resolveDatapath() {
+        if (!DATAPATH.isEmpty()) {
+            return DATAPATH;
+        }
+        Path cacheDir = Paths.get(CACHE_DIR);
+        for (String language : LANGUAGE.split("\\+")) {
+            String resource = RESOURCE_DIR + language + ".traineddata";
+            try (InputStream stream = OcrEngines.class.getClassLoader().getResourceAsStream(resource)) {
+                if (stream == null) {
+                    logger.debug("Modelo {} não encontrado no classpath, utilizando {}", resource, LEGACY_DATAPATH);
+                    return LEGACY_DATAPATH;
+                }
+                copyIfChanged(stream.readAllBytes(), cacheDir.resolve(language + ".traineddata"));
+            } catch (IOException e) {
+                throw new AutomationException("Erro ao copiar o modelo do OCR '%s' para %s: %s", resource, cacheDir, e.getMessage());
+            }
+        }
+        return cacheDir.toAbsolutePath().toString();
+    }
+
+    private static void copyIfChanged(byte[] model, Path target) throws IOException {
+        String checksum = sha256(model);
+        if (Files.isRegularFile(target) && Files.size(target) == model.length && checksum.equals(sha256(Files.readAllBytes(target)))) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        Files.write(temp, model);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Modelo do OCR copiado para {} (sha256 {})", target, checksum);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Motor de OCR com o modelo carregado. Não é thread-safe: deve ser utilizado apenas pela thread que o
+     * obteve em {@link #withEngine(Function)}.
+     */
+    public static final class Engine {
+
+        private final ITessAPI.TessBaseAPI handle;
+
+        private Engine(String datapath, String language) {
+            handle = TessAPI1.TessBaseAPICreate();
+            if (TessAPI1.TessBaseAPIInit3(handle, datapath, language) != 0) {
+                TessAPI1.TessBaseAPIDelete(handle);
+                throw new AutomationException("Erro ao inicializar o OCR com o idioma '%s' em %s", language, datapath);
+            }
+        }
+
+        /**
+         * Reconhece o texto da imagem.
+         *
+         * @param image imagem a ser reconhecida
+         * @return String
+         */
+        public String doOCR(BufferedImage image) {
+            setImage(image);
+            Pointer text = TessAPI1.TessBaseAPIGetUTF8Text(handle);
+            if (text == null) {
+                return "";
+            }
+            try {
+                return text.getString(0, "UTF-8");
+            } finally {
+                TessAPI1.TessDeleteText(text);
+            }
+        }
+
+        /**
+         * Reconhece as palavras, linhas ou blocos da imagem com as suas posições.
+         *
+         * @param image imagem a ser reconhecida
+         * @param level nível de {@link ITessAPI.TessPageIteratorLevel} (ex.: RIL_WORD)
+         * @return List
+         */
+        public List<Word> getWords(BufferedImage image, int level) {
+            setImage(image);
+            List<Word> words = new ArrayList<>();
+            if (TessAPI1.TessBaseAPIRecognize(handle, null) != 0) {
+                return words;
+            }
+            ITessAPI.TessResultIterator iterator = TessAPI1.TessBaseAPIGetIterator(handle);
+            if (iterator == null) {
+                return words;
+            }
+            try {
+                ITessAPI.TessPageIterator page = TessAPI1.TessResultIteratorGetPageIterator(iterator);
+                TessAPI1.TessPageIteratorBegin(page);
+                IntBuffer left = IntBuffer.allocate(1);
+                IntBuffer top = IntBuffer.allocate(1);
+                IntBuffer right = IntBuffer.allocate(1);
+                IntBuffer bottom = IntBuffer.allocate(1);
+                do {
+                    Pointer text = TessAPI1.TessResultIteratorGetUTF8Text(iterator, level);
+                    if (text == null) {
+                        continue;
+                    }
+                    String value = text.getString(0, "UTF-8");
+                    TessAPI1.TessDeleteText(text);
+                    float confidence = TessAPI1.TessResultIteratorConfidence(iterator, level);
+                    TessAPI1.TessPageIteratorBoundingBox(page, level, left, top, right, bottom);
+                    words.add(new Word(value, confidence, new Rectangle(left.get(0), top.get(0),
+                            right.get(0) - left.get(0), bottom.get(0) - top.get(0))));
+                } while (TessAPI1.TessPageIteratorNext(page, level) == ITessAPI.TRUE);
+            } finally {
+                TessAPI1.TessResultIteratorDelete(iterator);
+            }
+            return words;
+        }
+
+        /**
+         * Envia a imagem ao Tesseract em tons de cinza, 8 bits por pixel. Sub-imagens (ex.: blocos do OCR por
+         * blocos) compartilham o buffer da imagem original e por isso são copiadas antes do envio.
+         */
+        private void setImage(BufferedImage image) {
+            BufferedImage gray = image;
+            if (image.getType() != BufferedImage.TYPE_BYTE_GRAY || image.getRaster().getParent() != null) {
+                gray = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+                if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+                    gray.getRaster().setRect(image.getRaster());
+                } else {
+                    Graphics2D graphics = gray.createGraphics();
+                    graphics.drawImage(image, 0, 0, null);
+                    graphics.dispose();
+                }
+            }
+            TessAPI1.TessBaseAPISetImage(handle, ImageIOHelper.convertImageData(gray), gray.getWidth(), gray.getHeight(), 1, gray.getWidth());
+        }
+
+        private void clear() {
+            TessAPI1.TessBaseAPIClear(handle);
+        }
+
+        private void close() {
+            TessAPI1.TessBaseAPIEnd(handle);
+            TessAPI1.TessBaseAPIDelete(handle);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package mobile;
+
+import data.InternalPropertiesLoader;
+import exceptions.AutomationException;
+import net.sourceforge.tess4j.ITessAPI;
+import net.sourceforge.tess4j.Word;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Point;
+import utils.Tracer;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Leiaute de OCR de uma captura de tela do device: as palavras reconhecidas e as suas posições, com a conversão
+ * dos pixels da captura para as coordenadas da viewport do device, usadas pelos gestos W3C. A captura é feita na
+ * densidade física da tela (ex.: 3x no iOS), por isso as coordenadas são divididas pela razão entre a largura da
+ * captura e a largura da viewport; o deslocamento das barras de sistema, quando a origem da viewport não coincide
+ * com o topo da captura, é configurado pelas propriedades do arquivo configuration_core.properties:
+ * <ul>
+ *     <li>mobile.ocr.offsetX - deslocamento horizontal da viewport, em coordenadas do device (padrão 0);</li>
+ *     <li>mobile.ocr.offsetY - deslocamento vertical da viewport, como a altura da barra de status (padrão 0).</li>
+ * </ul>
+ * As palavras de cada tela são mantidas pelo {@link OcrCache}, de modo que toques consecutivos em textos da mesma
+ * tela executam o OCR uma única vez.
+ * <pre>
+ * OcrLayout layout = OcrLayout.capture();
+ * layout.tap("Continuar");
+ * </pre>
+ */
+public final class OcrLayout {
+
+    static final Logger logger = LogManager.getLogger(OcrLayout.class);
+
+    private static final InternalPropertiesLoader pLoader = new InternalPropertiesLoader("configuration_core.properties");
+    private static final int OFFSET_X = Integer.parseInt(pLoader.getValue("mobile.ocr.offsetX", "0").trim());
+    private static final int OFFSET_Y = Integer.parseInt(pLoader.getValue("mobile.ocr.offsetY", "0").trim());
+
+    private final int imageWidth;
+    private final int imageHeight;
+    private final Dimension viewport;
+    private final List<Word> words;
+
+    private OcrLayout(int imageWidth, int imageHeight, Dimension viewport, List<Word> words) {
+        this.imageWidth = imageWidth;
+        this.imageHeight = imageHeight;
+        this.viewport = viewport;
+        this.words = Collections.unmodifiableList(words);
+    }
+
+    /**
+     * Captura a tela do device e retorna o seu leiaute de OCR. As palavras de telas iguais às já reconhecidas
+     * são obtidas do {@link OcrCache}, sem executar o OCR novamente.
+     *
+     * @return OcrLayout
+     */
+    public static OcrLayout capture() {
+        try (Tracer.Span span = Tracer.span("ocr", "layout")) {
+            byte[] screenshot = Mobile.getScreenShot();
+            Dimension viewport = Mobile.getWindowSize();
+            OcrCache.Frame frame = OcrCache.frame(screenshot);
+            return new OcrLayout(frame.getWidth(), frame.getHeight(), viewport, frame.getWords(OcrLayout::recognize));
+        }
+    }
+
+    /**
+     * Descarta os resultados de OCR mantidos em cache.
+     */
+    public static void clear() {
+        OcrCache.clear();
+    }
+
+    /**
+     * Retorna a área do texto na captura de tela, em pixels da captura. Textos com espaços são localizados
+     * como palavras consecutivas da mesma linha.
+     *
+     * @param text texto procurado, sem diferenciar maiúsculas de minúsculas
+     * @return Optional vazio quando o texto não é encontrado
+     */
+    public Optional<Rectangle> findInScreenshot(String text) {
+        String[] parts = text.trim().split("\\s+");
+        for (int i = 0; i + parts.length <= words.size(); i++) {
+            Rectangle bounds = null;
+            int matched = 0;
+            while (matched < parts.length && words.get(i + matched).getText().equalsIgnoreCase(parts[matched])) {
+                Rectangle box = words.get(i + matched).getBoundingBox();
+                bounds = bounds == null ? new Rectangle(box) : bounds.union(box);
+                matched++;
+            }
+            if (matched == parts.length) {
+                return Optional.of(bounds);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Retorna o centro do texto em coordenadas da viewport do device.
+     *
+     * @param text texto procurado, sem diferenciar maiúsculas de minúsculas
+     * @return Optional vazio quando o texto não é encontrado
+     */
+    public Optional<Point> findOnDevice(String text) {
+        return findInScreenshot(text).map(box -> toDevice((int) box.getCenterX(), (int) box.getCenterY()));
+    }
+
+    /**
+     * Converte um ponto da captura de tela, em pixels, para coordenadas da viewport do device.
+     *
+     * @param x coordenada horizontal na captura
+     * @param y coordenada vertical na captura
+     * @return Point
+     */
+    public Point toDevice(int x, int y) {
+        double scale = (double) viewport.getWidth() / imageWidth;
+        int deviceX = (int) Math.round(x * scale) - OFFSET_X;
+        int deviceY = (int) Math.round(y * scale) - OFFSET_Y;
+        return new Point(Math.max(0, Math.min(deviceX, viewport.getWidth() - 1)),
+                Math.max(0, Math.min(deviceY, viewport.getHeight() - 1)));
+    }
+
+    /**
+     * Toca no centro do texto com um único comando W3C.
+     *
+     * @param text texto a ser tocado
+     */
+    public void tap(String text) {
+        Point point = locate(text);
+        Gestures.create().tap(point.getX(), point.getY()).perform();
+    }
+
+    /**
+     * Toca duas vezes no centro do texto com um único comando W3C.
+     *
+     * @param text texto a ser tocado
+     */
+    public void doubleTap(String text) {
+        Point point = locate(text);
+        Gestures.create().tap(point.getX(), point.getY()).tap(point.getX(), point.getY()).perform();
+    }
+
+    public List<Word> getWords() {
+        return words;
+    }
+
+    public int getImageWidth() {
+        return imageWidth;
+    }
+
+    public int getImageHeight() {
+        return imageHeight;
+    }
+
+    private Point locate(String text) {
+        return findOnDevice(text).orElseThrow(() ->
+                new AutomationException("Texto não encontrado na captura de tela: %s", text));
+    }
+
+    private static List<Word> recognize(OcrCache.Frame frame) {
+        try (Tracer.Span span = Tracer.span("ocr", "getWords")) {
+            BufferedImage processed = frame.getPreprocessedImage();
+            List<Word> words = OcrEngines.withEngine(engine -> engine.getWords(processed, ITessAPI.TessPageIteratorLevel.RIL_WORD));
+            if (processed.getWidth() != frame.getWidth()) {
+                words = toScreenshot(words, (double) frame.getWidth() / processed.getWidth());
+            }
+            return words;
+        }
+    }
+
+    /**
+     * Converte as posições das palavras reconhecidas em uma imagem reduzida para pixels da captura.
+     */
+    private static List<Word> toScreenshot(List<Word> words, double scale) {
+        List<Word> scaled = new ArrayList<>(words.size());
+        for (Word word : words) {
+            Rectangle box = word.getBoundingBox();
+            scaled.add(new Word(word.getText(), word.getConfidence(), new Rectangle((int) Math.round(box.x * scale),
+                    (int) Math.round(box.y * scale), (int) Math.round(box.width * scale), (int) Math.round(box.height * scale))));
+        }
+        return scaled;
+    }
+}
@@ -0,0 +1,404 @@
+package mobile;
+
+import data.InternalPropertiesLoader;
+import utils.Tracer;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Pré-processamento das capturas de tela para o OCR: conversão para tons de cinza, redução opcional e
+ * binarização. Os pixels são lidos e escritos diretamente nos buffers dos rasters (sem getRGB/setRGB) e cada
+ * etapa é executada em faixas de linhas em paralelo no ForkJoinPool comum. Os buffers intermediários são
+ * mantidos por thread e reutilizados entre as chamadas. Configurado pelas propriedades do arquivo
+ * configuration_core.properties:
+ * <ul>
+ *     <li>mobile.ocr.threshold - binarização: 'fixed' limiar fixo, equivalente ao contraste de 1,5x e limiar 128 da
+ *     implementação anterior (padrão), 'otsu' limiar
+ *     global calculado pelo histograma da imagem ou 'adaptive' limiar pela média da vizinhança de cada pixel;</li>
+ *     <li>mobile.ocr.downscale - fator inteiro de redução da imagem antes do OCR (padrão 1, sem redução).</li>
+ * </ul>
+ */
+final class OcrPreprocessor {
+
+    /**
+     * Estratégias de binarização.
+     */
+    enum Threshold {
+        FIXED, OTSU, ADAPTIVE
+    }
+
+    private static final InternalPropertiesLoader pLoader = new InternalPropertiesLoader("configuration_core.properties");
+    static final Threshold THRESHOLD = Threshold.valueOf(pLoader.getValue("mobile.ocr.threshold", "fixed").trim().toUpperCase());
+    static final int DOWNSCALE = Math.max(1, Integer.parseInt(pLoader.getValue("mobile.ocr.downscale", "1").trim()));
+
+    /**
+     * Limiar equivalente à implementação anterior: o contraste de 1,5x seguido do limiar 128 era aplicado sobre o
+     * valor convertido para sRGB pelo getRGB da imagem em tons de cinza, o que resulta em branco a partir do cinza 38.
+     * A equivalência depende da luminância calculada com arredondamento, como na conversão do Java2D (ver luma).
+     */
+    private static final int FIXED_LEVEL = 37;
+    private static final int ADAPTIVE_RADIUS = 15;
+    private static final int ADAPTIVE_OFFSET = 10;
+    private static final int BAND_ROWS = 64;
+
+    private static final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    private OcrPreprocessor() {
+    }
+
+    /**
+     * Pré-processa a imagem com a binarização e a redução configuradas.
+     *
+     * @param image captura de tela
+     * @return imagem binarizada em tons de cinza (TYPE_BYTE_GRAY)
+     */
+    static BufferedImage process(BufferedImage image) {
+        return process(image, THRESHOLD, DOWNSCALE);
+    }
+
+    /**
+     * Pré-processa a imagem.
+     *
+     * @param image     captura de tela
+     * @param threshold estratégia de binarização
+     * @param downscale fator inteiro de redução (1 mantém o tamanho)
+     * @return imagem binarizada em tons de cinza (TYPE_BYTE_GRAY)
+     */
+    static BufferedImage process(BufferedImage image, Threshold threshold, int downscale) {
+        try (Tracer.Span span = Tracer.span("ocr", "preprocessImage")) {
+            int factor = Math.max(1, Math.min(downscale, Math.min(image.getWidth(), image.getHeight())));
+            int width = image.getWidth() / factor;
+            int height = image.getHeight() / factor;
+            Buffers work = buffers.get();
+
+            BufferedImage output = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+            byte[] gray = ((DataBufferByte) output.getRaster().getDataBuffer()).getData();
+            if (factor == 1) {
+                toGray(image, gray);
+            } else {
+                byte[] full = work.gray(image.getWidth() * image.getHeight());
+                toGray(image, full);
+                downscale(full, image.getWidth(), gray, width, height, factor);
+            }
+
+            switch (threshold) {
+                case OTSU:
+                    binarize(gray, width, height, otsu(gray, width, height, work));
+                    break;
+                case ADAPTIVE:
+                    adaptive(gray, width, height, work);
+                    break;
+                default:
+                    binarize(gray, width, height, FIXED_LEVEL);
+            }
+            return output;
+        }
+    }
+
+    /**
+     * Converte a imagem para tons de cinza (luminância) em um buffer da thread atual, válido até a próxima
+     * chamada desta classe pela mesma thread.
+     *
+     * @param image imagem a ser convertida
+     * @return buffer com um byte por pixel, linha a linha
+     */
+    static byte[] grayscale(BufferedImage image) {
+        byte[] gray = buffers.get().gray(image.getWidth() * image.getHeight());
+        toGray(image, gray);
+        return gray;
+    }
+
+    /**
+     * Converte a imagem para tons de cinza (luminância) no buffer informado. Os formatos gerados pelo ImageIO
+     * para PNG (BGR, ABGR e cinza) e os formatos RGB inteiros são lidos diretamente do raster; os demais são
+     * convertidos pelo Java2D.
+     */
+    private static void toGray(BufferedImage image, byte[] gray) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        WritableRaster raster = image.getRaster();
+        if (raster.getParent() != null) {
+            drawGray(image, gray);
+            return;
+        }
+        switch (image.getType()) {
+            case BufferedImage.TYPE_INT_RGB:
+            case BufferedImage.TYPE_INT_ARGB: {
+                int[] pixels = ((DataBufferInt) raster.getDataBuffer()).getData();
+                int stride = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+                forEachBand(height, (from, to) -> {
+                    for (int y = from; y < to; y++) {
+                        int src = y * stride;
+                        int dst = y * width;
+                        for (int x = 0; x < width; x++) {
+                            int rgb = pixels[src + x];
+                            gray[dst + x] = luma((rgb >> 16) & 0xff, (rgb >> 8) & 0xff, rgb & 0xff);
+                        }
+                    }
+                });
+                break;
+            }
+            case BufferedImage.TYPE_3BYTE_BGR:
+            case BufferedImage.TYPE_4BYTE_ABGR: {
+                byte[] pixels = ((DataBufferByte) raster.getDataBuffer()).getData();
+                int channels = image.getType() == BufferedImage.TYPE_3BYTE_BGR ? 3 : 4;
+                int first = channels - 3;
+                forEachBand(height, (from, to) -> {
+                    for (int y = from; y < to; y++) {
+                        int src = y * width * channels + first;
+                        int dst = y * width;
+                        for (int x = 0; x < width; x++, src += channels) {
+                            gray[dst + x] = luma(pixels[src + 2] & 0xff, pixels[src + 1] & 0xff, pixels[src] & 0xff);
+                        }
+                    }
+                });
+                break;
+            }
+            case BufferedImage.TYPE_BYTE_GRAY:
+                System.arraycopy(((DataBufferByte) raster.getDataBuffer()).getData(), 0, gray, 0, width * height);
+                break;
+            default:
+                drawGray(image, gray);
+        }
+    }
+
+    private static void drawGray(BufferedImage image, byte[] gray) {
+        BufferedImage grayscale = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = grayscale.createGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        System.arraycopy(((DataBufferByte) grayscale.getRaster().getDataBuffer()).getData(), 0, gray, 0,
+                image.getWidth() * image.getHeight());
+    }
+
+    /**
+     * Luminância com os pesos e o arredondamento da conversão para TYPE_BYTE_GRAY do Java2D; sem o arredondamento
+     * cerca de 17 mil cores ficariam do lado oposto do limiar fixo.
+     */
+    private static byte luma(int r, int g, int b) {
+        return (byte) ((r * 77 + g * 150 + b * 29 + 128) >> 8);
+    }
+
+    /**
+     * Reduz a imagem pela média de cada bloco de factor x factor pixels.
+     */
+    private static void downscale(byte[] source, int sourceWidth, byte[] target, int width, int height, int factor) {
+        int area = factor * factor;
+        forEachBand(height, (from, to) -> {
+            for (int y = from; y < to; y++) {
+                for (int x = 0; x < width; x++) {
+                    int sum = 0;
+                    for (int dy = 0; dy < factor; dy++) {
+                        int row = (y * factor + dy) * sourceWidth + x * factor;
+                        for (int dx = 0; dx < factor; dx++) {
+                            sum += source[row + dx] & 0xff;
+                        }
+                    }
+                    target[y * width + x] = (byte) (sum / area);
+                }
+            }
+        });
+    }
+
+    private static void binarize(byte[] gray, int width, int height, int level) {
+        forEachBand(height, (from, to) -> {
+            for (int i = from * width, end = to * width; i < end; i++) {
+                gray[i] = (gray[i] & 0xff) > level ? (byte) 255 : 0;
+            }
+        });
+    }
+
+    /**
+     * Calcula o limiar de Otsu, que maximiza a variância entre as classes claro e escuro do histograma. Os
+     * histogramas são calculados por faixa e somados ao final.
+     */
+    private static int otsu(byte[] gray, int width, int height, Buffers work) {
+        int[][] histograms = work.histograms(bands(height));
+        forEachBand(height, (from, to) -> {
+            int[] histogram = histograms[from / BAND_ROWS];
+            Arrays.fill(histogram, 0);
+            for (int i = from * width, end = to * width; i < end; i++) {
+                histogram[gray[i] & 0xff]++;
+            }
+        });
+
+        long[] histogram = new long[256];
+        for (int band = 0; band < bands(height); band++) {
+            for (int level = 0; level < 256; level++) {
+                histogram[level] += histograms[band][level];
+            }
+        }
+
+        long total = (long) width * height;
+        double sum = 0;
+        for (int level = 0; level < 256; level++) {
+            sum += (double) level * histogram[level];
+        }
+        double sumBackground = 0;
+        long weightBackground = 0;
+        double best = -1;
+        int threshold = FIXED_LEVEL;
+        for (int level = 0; level < 256; level++) {
+            weightBackground += histogram[level];
+            if (weightBackground == 0) {
+                continue;
+            }
+            long weightForeground = total - weightBackground;
+            if (weightForeground == 0) {
+                break;
+            }
+            sumBackground += (double) level * histogram[level];
+            double meanBackground = sumBackground / weightBackground;
+            double meanForeground = (sum - sumBackground) / weightForeground;
+            double between = (double) weightBackground * weightForeground * (meanBackground - meanForeground) * (meanBackground - meanForeground);
+            if (between > best) {
+                best = between;
+                threshold = level;
+            }
+        }
+        return threshold;
+    }
+
+    /**
+     * Binariza cada pixel pela média da vizinhança de (2 * ADAPTIVE_RADIUS + 1)² pixels: pixels mais escuros que
+     * a média menos ADAPTIVE_OFFSET ficam pretos. A média é calculada por somas deslizantes separáveis, primeiro
+     * nas linhas e depois nas colunas, o que mantém o custo independente do tamanho da vizinhança.
+     */
+    private static void adaptive(byte[] gray, int width, int height, Buffers work) {
+        int[] rowSums = work.sums(width * height);
+        int radius = ADAPTIVE_RADIUS;
+        forEachBand(height, (from, to) -> {
+            for (int y = from; y < to; y++) {
+                int row = y * width;
+                int sum = 0;
+                for (int x = 0; x <= Math.min(width - 1, radius); x++) {
+                    sum += gray[row + x] & 0xff;
+                }
+                for (int x = 0; x < width; x++) {
+                    rowSums[row + x] = sum;
+                    if (x + radius + 1 < width) {
+                        sum += gray[row + x + radius + 1] & 0xff;
+                    }
+                    if (x - radius >= 0) {
+                        sum -= gray[row + x - radius] & 0xff;
+                    }
+                }
+            }
+        });
+
+        forEachBand(height, (from, to) -> {
+            int[] columnSums = new int[width];
+            for (int y = Math.max(0, from - radius); y <= Math.min(height - 1, from + radius); y++) {
+                for (int x = 0; x < width; x++) {
+                    columnSums[x] += rowSums[y * width + x];
+                }
+            }
+            for (int y = from; y < to; y++) {
+                int rows = Math.min(height - 1, y + radius) - Math.max(0, y - radius) + 1;
+                int row = y * width;
+                for (int x = 0; x < width; x++) {
+                    int columns = Math.min(width - 1, x + radius) - Math.max(0, x - radius) + 1;
+                    int mean = columnSums[x] / (rows * columns);
+                    gray[row + x] = (gray[row + x] & 0xff) > mean - ADAPTIVE_OFFSET ? (byte) 255 : 0;
+                }
+                if (y + radius + 1 < height) {
+                    int added = (y + radius + 1) * width;
+                    for (int x = 0; x < width; x++) {
+                        columnSums[x] += rowSums[added + x];
+                    }
+                }
+                if (y - radius >= 0) {
+                    int removed = (y - radius) * width;
+                    for (int x = 0; x < width; x++) {
+                        columnSums[x] -= rowSums[removed + x];
+                    }
+                }
+            }
+        });
+    }
+
+    private static int bands(int height) {
+        return (height + BAND_ROWS - 1) / BAND_ROWS;
+    }
+
+    private static void forEachBand(int height, Band band) {
+        if (height <= BAND_ROWS) {
+            band.process(0, height);
+        } else {
+            ForkJoinPool.commonPool().invoke(new Bands(band, 0, bands(height), height));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Band {
+        void process(int fromRow, int toRow);
+    }
+
+    /**
+     * Divide as faixas de BAND_ROWS linhas recursivamente entre as threads do ForkJoinPool.
+     */
+    private static final class Bands extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Band band;
+        private final int from;
+        private final int to;
+        private final int height;
+
+        private Bands(Band band, int from, int to, int height) {
+            this.band = band;
+            this.from = from;
+            this.to = to;
+            this.height = height;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                band.process(from * BAND_ROWS, Math.min(height, (from + 1) * BAND_ROWS));
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Bands(band, from, middle, height), new Bands(band, middle, to, height));
+        }
+    }
+
+    /**
+     * Buffers intermediários reutilizados pela thread que executa o pré-processamento.
+     */
+    private static final class Buffers {
+        private byte[] gray = new byte[0];
+        private int[] sums = new int[0];
+        private int[][] histograms = new int[0][];
+
+        private byte[] gray(int size) {
+            if (gray.length < size) {
+                gray = new byte[size];
+            }
+            return gray;
+        }
+
+        private int[] sums(int size) {
+            if (sums.length < size) {
+                sums = new int[size];
+            }
+            return sums;
+        }
+
+        private int[][] histograms(int count) {
+            if (histograms.length < count) {
+                histograms = new int[count][256];
+            }
+            return histograms;
+        }
+    }
+}
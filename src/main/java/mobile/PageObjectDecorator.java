@@ -0,0 +1,439 @@
+package mobile;
+
+import flutter.FlutterFindBy;
+import flutter.PageFactoryFlutter;
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import io.appium.java_client.pagefactory.DefaultElementByBuilder;
+import io.appium.java_client.pagefactory.Widget;
+import io.appium.java_client.remote.AutomationName;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.CacheLookup;
+import org.openqa.selenium.support.PageFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Decora os campos de elementos dos PageObjects sem depender de um driver ativo. Os campos são lidos por
+ * reflexão uma única vez por classe e os localizadores ('@AndroidFindBy', '@iOSXCUITFindBy', '@FindBy') são
+ * construídos uma única vez por campo e plataforma. Cada campo recebe um proxy que localiza o elemento no
+ * momento do uso, no driver da thread atual, com o timeout informado pela tela naquele instante:
+ * alterar o timeout não exige decorar novamente a tela e criar a tela não inicia o driver.
+ * <p>
+ * Dentro da condição de uma espera do {@link AdaptiveWait} o elemento é procurado uma única vez, sem espera
+ * própria. Telas ou campos anotados com {@link CacheElements} (ou campos com '@CacheLookup') reutilizam a
+ * referência localizada enquanto ela for válida (ver {@link ElementCache}). Telas com Widgets continuam
+ * decoradas pelo {@link AppiumFieldDecorator} e telas com '@FlutterFindBy' pelo {@link PageFactoryFlutter},
+ * ambos exigindo o driver na criação da tela; como o AppiumFieldDecorator recebe um timeout fixo, as telas com
+ * Widgets são decoradas novamente quando o timeout é alterado (ver {@link #timeoutChanged}).
+ */
+final class PageObjectDecorator {
+
+    static final Logger logger = LogManager.getLogger(PageObjectDecorator.class);
+
+    private static final Map<Class<?>, PageMetadata> pageMetadata = new ConcurrentHashMap<>();
+
+    private PageObjectDecorator() {
+    }
+
+    /**
+     * Decora os campos de elementos do PageObject.
+     *
+     * @param page    PageObject a ser decorado
+     * @param timeout timeout de localização dos elementos, consultado a cada uso
+     */
+    static void decorate(Object page, Supplier<Duration> timeout) {
+        PageMetadata metadata = pageMetadata.computeIfAbsent(page.getClass(), PageMetadata::new);
+        if (metadata.requiresAppiumDecorator) {
+            PageFactory.initElements(new AppiumFieldDecorator(Mobile.getDriver(), timeout.get()), page);
+        } else {
+            for (ElementField elementField : metadata.fields) {
+                try {
+                    elementField.field.set(page, elementField.createProxy(timeout));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            }
+        }
+        if (metadata.hasFlutterFields) {
+            PageFactoryFlutter.initElements(Mobile.getDriver(), page);
+        }
+    }
+
+    /**
+     * Aplica um novo timeout ao PageObject já decorado. Os proxies desta classe consultam o timeout a cada uso;
+     * apenas as telas decoradas pelo {@link AppiumFieldDecorator} precisam ser decoradas novamente.
+     *
+     * @param page    PageObject decorado
+     * @param timeout timeout de localização dos elementos
+     */
+    static void timeoutChanged(Object page, Supplier<Duration> timeout) {
+        PageMetadata metadata = pageMetadata.computeIfAbsent(page.getClass(), PageMetadata::new);
+        if (metadata.requiresAppiumDecorator) {
+            PageFactory.initElements(new AppiumFieldDecorator(Mobile.getDriver(), timeout.get()), page);
+        }
+    }
+
+    /**
+     * Retorna o campo do PageObject que originou o proxy, ou null quando o elemento não foi decorado por esta classe.
+     *
+     * @param element elemento do PageObject
+     * @return Field
+     */
+    static Field fieldOf(WebElement element) {
+        if (element != null && Proxy.isProxyClass(element.getClass())
+                && Proxy.getInvocationHandler(element) instanceof ElementHandler) {
+            return ((ElementHandler) Proxy.getInvocationHandler(element)).field;
+        }
+        return null;
+    }
+
+    /**
+     * Metadados de uma classe de PageObject, calculados uma única vez.
+     */
+    private static final class PageMetadata {
+        private final List<ElementField> fields = new ArrayList<>();
+        private final boolean cachedPage;
+        private final boolean hasFlutterFields;
+        private boolean requiresAppiumDecorator;
+
+        private PageMetadata(Class<?> pageClass) {
+            this.cachedPage = pageClass.isAnnotationPresent(CacheElements.class);
+            boolean flutter = false;
+            for (Class<?> clazz = pageClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                flutter |= !PageFactoryFlutter.getFlutterFields(clazz).isEmpty();
+                for (Field field : clazz.getDeclaredFields()) {
+                    inspect(field);
+                }
+            }
+            this.hasFlutterFields = flutter;
+            if (requiresAppiumDecorator) {
+                logger.debug("A tela {} possui Widgets e será decorada pelo AppiumFieldDecorator", pageClass.getSimpleName());
+            }
+        }
+
+        private void inspect(Field field) {
+            if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())
+                    || field.isAnnotationPresent(FlutterFindBy.class)) {
+                return;
+            }
+            if (field.getType() == WebElement.class) {
+                field.setAccessible(true);
+                fields.add(new ElementField(field, false, cachedPage || field.isAnnotationPresent(CacheElements.class)
+                        || field.isAnnotationPresent(CacheLookup.class)));
+            } else if (field.getType() == List.class && isWebElementList(field) && hasLocatorAnnotation(field)) {
+                field.setAccessible(true);
+                fields.add(new ElementField(field, true, false));
+            } else if (Widget.class.isAssignableFrom(field.getType())
+                    || (hasLocatorAnnotation(field) && !List.class.isAssignableFrom(field.getType()))) {
+                requiresAppiumDecorator = true;
+            }
+        }
+
+        private static boolean isWebElementList(Field field) {
+            Type type = field.getGenericType();
+            return type instanceof ParameterizedType
+                    && ((ParameterizedType) type).getActualTypeArguments()[0] == WebElement.class;
+        }
+
+        private static boolean hasLocatorAnnotation(Field field) {
+            for (Annotation annotation : field.getAnnotations()) {
+                String packageName = annotation.annotationType().getPackageName();
+                if (packageName.equals("io.appium.java_client.pagefactory") || packageName.equals("org.openqa.selenium.support")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Campo de elemento com os localizadores já construídos por plataforma.
+     */
+    private static final class ElementField {
+        private final Field field;
+        private final boolean list;
+        private final boolean cached;
+        private final Map<MobilePlatform, By> locators = new ConcurrentHashMap<>();
+
+        private ElementField(Field field, boolean list, boolean cached) {
+            this.field = field;
+            this.list = list;
+            this.cached = cached;
+        }
+
+        private By getLocator(MobilePlatform platform) {
+            return locators.computeIfAbsent(platform, p -> {
+                DefaultElementByBuilder builder = p == MobilePlatform.IOS
+                        ? new DefaultElementByBuilder("iOS", AutomationName.IOS_XCUI_TEST)
+                        : new DefaultElementByBuilder("Android", AutomationName.ANDROID_UIAUTOMATOR2);
+                builder.setAnnotated(field);
+                return builder.buildBy();
+            });
+        }
+
+        private Object createProxy(Supplier<Duration> timeout) {
+            if (list) {
+                return Proxy.newProxyInstance(PageObjectDecorator.class.getClassLoader(), new Class<?>[]{List.class},
+                        new ListHandler(this, timeout));
+            }
+            return newElementProxy(new ElementHandler(toString(), () -> locate(timeout), cached, false, field));
+        }
+
+        /**
+         * Retorna o localizador da plataforma da sessão atual. O driver só é obtido pelo {@link Mobile#getDriver()}
+         * quando ainda não foi criado, pois o getDriver restaura o implicit wait padrão, que a espera seguinte
+         * voltaria a zerar: seriam dois comandos ao Appium Server a cada localização.
+         */
+        private By currentLocator() {
+            DriverSession session = DriverRegistry.current();
+            if (session.getAppiumDriver() == null) {
+                Mobile.getDriver();
+            }
+            return getLocator(session.getPlatformName());
+        }
+
+        private WebElement locate(Supplier<Duration> timeout) {
+            By locator = currentLocator();
+            Duration wait = timeout.get();
+            if (AdaptiveWait.isPolling() || wait.isZero()) {
+                return Mobile.getDriver().findElement(locator);
+            }
+            try {
+                return AdaptiveWait.until("findElement", wait, () -> Mobile.getDriver().findElement(locator));
+            } catch (TimeoutException e) {
+                if (e.getCause() instanceof NoSuchElementException) {
+                    throw (NoSuchElementException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return field.getDeclaringClass().getSimpleName() + "." + field.getName();
+        }
+    }
+
+    private static WebElement newElementProxy(ElementHandler handler) {
+        return (WebElement) Proxy.newProxyInstance(PageObjectDecorator.class.getClassLoader(),
+                new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class}, handler);
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Proxy de um elemento: localiza o elemento a cada uso ou, com o cache habilitado ({@link CacheElements}),
+     * reutiliza a referência já localizada enquanto for válida para o {@link ElementCache}. Uma referência
+     * desatualizada (stale) é descartada e o elemento é localizado novamente uma única vez. Com o cache, as
+     * buscas de elementos filhos (findElement/findElements) também são reutilizadas.
+     */
+    private static final class ElementHandler implements InvocationHandler {
+        private final String description;
+        private final Supplier<WebElement> locator;
+        private final boolean cacheable;
+        private final boolean child;
+        private final Field field;
+        private final Map<String, Object> children = new ConcurrentHashMap<>();
+        private volatile CachedElement cached;
+        private volatile long childrenGeneration = -1;
+
+        private ElementHandler(String description, Supplier<WebElement> locator, boolean cacheable, boolean child, Field field) {
+            this.description = description;
+            this.locator = locator;
+            this.cacheable = cacheable;
+            this.child = child;
+            this.field = field;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "toString":
+                    return "Proxy element for: " + description;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (!cacheable) {
+                WebElement element = locator.get();
+                return "getWrappedElement".equals(name) ? element : call(element, method, args);
+            }
+            if (("findElement".equals(name) || "findElements".equals(name)) && args != null && args[0] instanceof By) {
+                return findChild(name, (By) args[0]);
+            }
+            for (int attempt = 0; ; attempt++) {
+                WebElement element = resolve();
+                if ("getWrappedElement".equals(name)) {
+                    return element;
+                }
+                try {
+                    return call(element, method, args);
+                } catch (StaleElementReferenceException e) {
+                    if (attempt > 0) {
+                        throw e;
+                    }
+                    ElementCache.recordStale(description);
+                    cached = null;
+                }
+            }
+        }
+
+        private WebElement resolve() {
+            long generation = ElementCache.generation();
+            CachedElement current = cached;
+            if (current != null && current.generation == generation) {
+                if (!child) {
+                    ElementCache.recordHit(description);
+                }
+                return current.element;
+            }
+            ElementCache.recordMiss(description);
+            WebElement element = locator.get();
+            cached = new CachedElement(element, generation);
+            return element;
+        }
+
+        private <T> T onElement(Function<WebElement, T> action) {
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    return action.apply(resolve());
+                } catch (StaleElementReferenceException e) {
+                    if (attempt > 0) {
+                        throw e;
+                    }
+                    ElementCache.recordStale(description);
+                    cached = null;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object findChild(String method, By by) {
+            long generation = ElementCache.generation();
+            if (childrenGeneration != generation) {
+                children.clear();
+                childrenGeneration = generation;
+            }
+            String key = method + " " + by;
+            String childDescription = description + " > " + by;
+            Object found = children.get(key);
+            if (found != null) {
+                ElementCache.recordHit(childDescription);
+                return found instanceof List ? new ArrayList<>((List<WebElement>) found) : found;
+            }
+            ElementCache.recordMiss(childDescription);
+            if ("findElement".equals(method)) {
+                WebElement element = onElement(parent -> parent.findElement(by));
+                ElementHandler handler = new ElementHandler(childDescription, () -> onElement(parent -> parent.findElement(by)),
+                        true, true, null);
+                handler.cached = new CachedElement(element, generation);
+                found = newElementProxy(handler);
+                children.put(key, found);
+                return found;
+            }
+            List<WebElement> elements = onElement(parent -> parent.findElements(by));
+            List<WebElement> proxies = new ArrayList<>(elements.size());
+            for (int i = 0; i < elements.size(); i++) {
+                int index = i;
+                ElementHandler handler = new ElementHandler(childDescription + "[" + i + "]", () -> {
+                    List<WebElement> current = onElement(parent -> parent.findElements(by));
+                    if (current.size() <= index) {
+                        throw new NoSuchElementException(String.format("Elemento %s[%d] não localizado", by, index));
+                    }
+                    return current.get(index);
+                }, true, true, null);
+                handler.cached = new CachedElement(elements.get(i), generation);
+                proxies.add(newElementProxy(handler));
+            }
+            if (!proxies.isEmpty()) {
+                children.put(key, proxies);
+            }
+            return new ArrayList<>(proxies);
+        }
+    }
+
+    /**
+     * Referência de elemento localizada na geração informada do {@link ElementCache}.
+     */
+    private static final class CachedElement {
+        private final WebElement element;
+        private final long generation;
+
+        private CachedElement(WebElement element, long generation) {
+            this.element = element;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Proxy de um campo List&lt;WebElement&gt;: localiza os elementos a cada uso, aguardando até o timeout que
+     * a lista não esteja vazia.
+     */
+    private static final class ListHandler implements InvocationHandler {
+        private final ElementField elementField;
+        private final Supplier<Duration> timeout;
+
+        private ListHandler(ElementField elementField, Supplier<Duration> timeout) {
+            this.elementField = elementField;
+            this.timeout = timeout;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("toString".equals(method.getName())) {
+                return "Proxy list for: " + elementField;
+            }
+            return call(locate(), method, args);
+        }
+
+        private List<WebElement> locate() {
+            By locator = elementField.currentLocator();
+            Duration wait = timeout.get();
+            if (AdaptiveWait.isPolling() || wait.isZero()) {
+                return Mobile.getDriver().findElements(locator);
+            }
+            try {
+                return AdaptiveWait.until("findElements", wait, () -> {
+                    List<WebElement> elements = Mobile.getDriver().findElements(locator);
+                    return elements.isEmpty() ? null : elements;
+                });
+            } catch (TimeoutException e) {
+                return Collections.emptyList();
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package mobile;
+
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.pagefactory.AndroidFindBy;
+import io.appium.java_client.pagefactory.iOSXCUITFindBy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Obtém o localizador declarado em '@AndroidFindBy' ou '@iOSXCUITFindBy' para um elemento de um PageObject,
+ * permitindo avaliá-lo localmente em uma {@link ScreenSnapshot} ou enviá-lo em comandos executados pelo próprio
+ * device (ex.: 'mobile: scroll'). São suportadas as estratégias id, accessibility, className, xpath e, no Android,
+ * uiAutomator; demais estratégias (predicados, class chain, data matcher) retornam vazio.
+ * Os campos de cada classe são lidos por reflexão uma única vez.
+ */
+final class PageObjectLocators {
+
+    private static final Map<Class<?>, List<Field>> elementFields = new ConcurrentHashMap<>();
+    private static final Map<Field, Optional<By>> androidLocators = new ConcurrentHashMap<>();
+    private static final Map<Field, Optional<By>> iosLocators = new ConcurrentHashMap<>();
+
+    private PageObjectLocators() {
+    }
+
+    /**
+     * Retorna o localizador do campo do PageObject que contém o elemento informado.
+     *
+     * @param page     PageObject que declara o elemento
+     * @param element  elemento inicializado pelo PageFactory
+     * @param platform plataforma em execução
+     * @return Optional vazio quando o campo não é encontrado ou a estratégia não é suportada
+     */
+    static Optional<By> of(Object page, WebElement element, MobilePlatform platform) {
+        Field decorated = PageObjectDecorator.fieldOf(element);
+        if (decorated != null) {
+            return of(decorated, platform);
+        }
+        for (Field field : fieldsOf(page.getClass())) {
+            try {
+                if (field.get(page) == element) {
+                    return of(field, platform);
+                }
+            } catch (IllegalAccessException e) {
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<By> of(Field field, MobilePlatform platform) {
+        return platform == MobilePlatform.IOS
+                ? iosLocators.computeIfAbsent(field, PageObjectLocators::ios)
+                : androidLocators.computeIfAbsent(field, PageObjectLocators::android);
+    }
+
+    private static List<Field> fieldsOf(Class<?> clazz) {
+        return elementFields.computeIfAbsent(clazz, c -> {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> current = c; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (WebElement.class.isAssignableFrom(field.getType())
+                            && (field.isAnnotationPresent(AndroidFindBy.class) || field.isAnnotationPresent(iOSXCUITFindBy.class))) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            return Collections.unmodifiableList(fields);
+        });
+    }
+
+    private static Optional<By> android(Field field) {
+        AndroidFindBy findBy = field.getAnnotation(AndroidFindBy.class);
+        if (findBy == null) {
+            return Optional.empty();
+        }
+        if (!findBy.uiAutomator().isEmpty()) {
+            return Optional.of(AppiumBy.androidUIAutomator(findBy.uiAutomator()));
+        }
+        return locator(findBy.id(), findBy.accessibility(), findBy.className(), findBy.xpath());
+    }
+
+    private static Optional<By> ios(Field field) {
+        iOSXCUITFindBy findBy = field.getAnnotation(iOSXCUITFindBy.class);
+        if (findBy == null) {
+            return Optional.empty();
+        }
+        return locator(findBy.id(), findBy.accessibility(), findBy.className(), findBy.xpath());
+    }
+
+    private static Optional<By> locator(String id, String accessibility, String className, String xpath) {
+        if (!id.isEmpty()) {
+            return Optional.of(AppiumBy.id(id));
+        }
+        if (!accessibility.isEmpty()) {
+            return Optional.of(AppiumBy.accessibilityId(accessibility));
+        }
+        if (!className.isEmpty()) {
+            return Optional.of(AppiumBy.className(className));
+        }
+        if (!xpath.isEmpty()) {
+            return Optional.of(By.xpath(xpath));
+        }
+        return Optional.empty();
+    }
+}
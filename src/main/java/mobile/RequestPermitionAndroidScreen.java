@@ -7,6 +7,7 @@ import io.appium.java_client.pagefactory.AndroidFindBy;
 import org.openqa.selenium.WebElement;
 
 import java.time.Duration;
+import java.util.Optional;
 
 /**
  * Classe que representa a PageObject global para permitir ou bloquear um recurso do sistema.
@@ -40,26 +41,21 @@ public class RequestPermitionAndroidScreen extends MobileBaseActions {
     }
 
     public boolean isShow() {
-        return (isView(btnPermissionAllowWhileUsingApp, "", false) || isView(btnPermissionAllow, "", false)
-                || isView(btnPermissionAllow2, "", false));
+        return waitAnyOf(btnPermissionAllowWhileUsingApp, btnPermissionAllow, btnPermissionAllow2).isPresent();
     }
 
     public void allow() {
-        if (isView(btnPermissionAllow, "", false))
-            click(btnPermissionAllow);
-        else if (isView(btnPermissionAllowWhileUsingApp, "", false))
-            click(btnPermissionAllowWhileUsingApp);
-        else if (isView(btnPermissionAllow2, "", false))
-            click(btnPermissionAllow2);
+        Optional<ElementMatch> button = waitAnyOf(btnPermissionAllow, btnPermissionAllowWhileUsingApp, btnPermissionAllow2);
+        if (button.isPresent())
+            click(button.get().getElement());
         else
             logger.error("Erro ao clicar no Botao [Aceitar] do popUp de permições.");
     }
 
     public void deny() {
-        if (isView(btnPermissionDeny, "", false))
-            click(btnPermissionDeny);
-        else if (isView(btnPermissionDeny2, "", false))
-            click(btnPermissionDeny2);
+        Optional<ElementMatch> button = waitAnyOf(btnPermissionDeny, btnPermissionDeny2);
+        if (button.isPresent())
+            click(button.get().getElement());
         else
             logger.error("Erro ao clicar no Botao [Recusar] do popUp de permições.");
     }
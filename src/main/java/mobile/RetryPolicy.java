@@ -0,0 +1,215 @@
+package mobile;
+
+import data.InternalPropertiesLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Política de novas tentativas das ações da tela. Cada execução possui o seu próprio estado e um prazo total
+ * ({@link Deadline}) que inclui as tentativas, as pausas entre elas e as esperas internas: a ação falha dentro
+ * do orçamento informado, independentemente da quantidade de tentativas.
+ * Configurada pelas propriedades do arquivo configuration_core.properties:
+ * <ul>
+ *     <li>mobile.retry.attempts - quantidade máxima de tentativas (padrão 3);</li>
+ *     <li>mobile.retry.backoff.initial - pausa após a primeira falha em milissegundos (padrão 200);</li>
+ *     <li>mobile.retry.backoff.max - pausa máxima entre tentativas em milissegundos (padrão 2000);</li>
+ *     <li>mobile.retry.jitter - fração aleatória subtraída de cada pausa, de 0 a 1 (padrão 0.5);</li>
+ *     <li>mobile.retry.exceptions - exceções que permitem nova tentativa, separadas por vírgula
+ *     (padrão: StaleElementReferenceException, NoSuchElementException, ElementNotInteractableException,
+ *     ElementClickInterceptedException e TimeoutException do Selenium).</li>
+ * </ul>
+ * As novas tentativas por ação são registradas no {@link MetricsRegistry} como 'retry' e o registro pode ser
+ * desligado pela propriedade 'mobile.metrics.retry'.
+ */
+public final class RetryPolicy {
+
+    static final Logger logger = LogManager.getLogger(RetryPolicy.class);
+
+    private static final String DEFAULT_RETRYABLE = "org.openqa.selenium.StaleElementReferenceException,"
+            + "org.openqa.selenium.NoSuchElementException,org.openqa.selenium.ElementNotInteractableException,"
+            + "org.openqa.selenium.ElementClickInterceptedException,org.openqa.selenium.TimeoutException";
+
+    private static final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private static final boolean isActive = MetricsRegistry.register("retry", RetryPolicy::getSummary,
+            () -> stats.values().stream().anyMatch(s -> s.retries.sum() > 0 || s.exhausted.sum() > 0), RetryPolicy::reset);
+    private static RetryPolicy defaultPolicy;
+
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final double jitter;
+    private final List<Class<? extends Throwable>> retryable;
+
+    public RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, double jitter,
+                       List<Class<? extends Throwable>> retryable) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = Math.max(initialBackoffNanos, maxBackoff.toNanos());
+        this.jitter = Math.min(1, Math.max(0, jitter));
+        this.retryable = Collections.unmodifiableList(new ArrayList<>(retryable));
+    }
+
+    /**
+     * Retorna a política configurada pelo arquivo configuration_core.properties.
+     *
+     * @return RetryPolicy
+     */
+    public static synchronized RetryPolicy getDefault() {
+        if (defaultPolicy == null) {
+            InternalPropertiesLoader pLoader = new InternalPropertiesLoader("configuration_core.properties");
+            defaultPolicy = new RetryPolicy(
+                    Integer.parseInt(pLoader.getValue("mobile.retry.attempts", "3")),
+                    Duration.ofMillis(Long.parseLong(pLoader.getValue("mobile.retry.backoff.initial", "200"))),
+                    Duration.ofMillis(Long.parseLong(pLoader.getValue("mobile.retry.backoff.max", "2000"))),
+                    Double.parseDouble(pLoader.getValue("mobile.retry.jitter", "0.5")),
+                    loadClasses(pLoader.getValue("mobile.retry.exceptions", DEFAULT_RETRYABLE)));
+        }
+        return defaultPolicy;
+    }
+
+    /**
+     * Executa a ação, repetindo-a enquanto falhar com uma exceção configurada como repetível,
+     * houver tentativas disponíveis e o prazo não tiver expirado.
+     *
+     * @param name   nome da ação, utilizado nas métricas
+     * @param budget prazo total da ação, incluindo as novas tentativas
+     * @param action ação executada
+     * @param <T>    tipo do retorno da ação
+     * @return retorno da ação
+     */
+    public <T> T execute(String name, Duration budget, Supplier<T> action) {
+        Stats actionStats = isActive ? stats.computeIfAbsent(name, key -> new Stats()) : new Stats();
+        actionStats.calls.increment();
+        try (Deadline deadline = Deadline.start(budget)) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return action.get();
+                } catch (RuntimeException e) {
+                    if (!isRetryable(e)) {
+                        throw e;
+                    }
+                    long pause = backoffNanos(attempt);
+                    if (attempt >= maxAttempts || deadline.remaining().toNanos() <= pause) {
+                        actionStats.exhausted.increment();
+                        throw e;
+                    }
+                    actionStats.retries.increment();
+                    logger.debug("Nova tentativa de '{}' ({}/{}) após {} ms - [{}]", name, attempt + 1, maxAttempts,
+                            TimeUnit.NANOSECONDS.toMillis(pause), e.getMessage());
+                    if (!sleep(pause)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Executa a ação sem retorno com as mesmas regras de {@link #execute(String, Duration, Supplier)}.
+     *
+     * @param name   nome da ação, utilizado nas métricas
+     * @param budget prazo total da ação, incluindo as novas tentativas
+     * @param action ação executada
+     */
+    public void run(String name, Duration budget, Runnable action) {
+        execute(name, budget, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Verifica se a exceção, ou a sua causa, permite uma nova tentativa.
+     *
+     * @param throwable exceção lançada pela ação
+     * @return boolean
+     */
+    public boolean isRetryable(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            for (Class<? extends Throwable> type : retryable) {
+                if (type.isInstance(t)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retorna o resumo das novas tentativas por ação.
+     *
+     * @return String
+     */
+    public static String getSummary() {
+        StringBuilder summary = new StringBuilder("Novas tentativas das ações:\n");
+        summary.append(String.format("%-30s %10s %12s %10s%n", "ação", "execuções", "tentativas", "esgotadas"));
+        stats.forEach((name, s) -> summary.append(String.format("%-30s %10d %12d %10d%n", name, s.calls.sum(), s.retries.sum(), s.exhausted.sum())));
+        return summary.toString();
+    }
+
+    /**
+     * Descarta as novas tentativas registradas.
+     */
+    public static void reset() {
+        stats.clear();
+    }
+
+    public static long getRetries(String name) {
+        Stats s = stats.get(name);
+        return s == null ? 0 : s.retries.sum();
+    }
+
+    private long backoffNanos(int attempt) {
+        long backoff = initialBackoffNanos << Math.min(attempt - 1, 20);
+        backoff = backoff < 0 ? maxBackoffNanos : Math.min(maxBackoffNanos, backoff);
+        return backoff - (long) (backoff * jitter * ThreadLocalRandom.current().nextDouble());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Class<? extends Throwable>> loadClasses(String classNames) {
+        List<Class<? extends Throwable>> classes = new ArrayList<>();
+        for (String className : classNames.split(",")) {
+            if (className.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                Class<?> type = Class.forName(className.trim());
+                if (Throwable.class.isAssignableFrom(type)) {
+                    classes.add((Class<? extends Throwable>) type);
+                } else {
+                    logger.warn("A classe '{}' da propriedade 'mobile.retry.exceptions' não é uma exceção", className.trim());
+                }
+            } catch (ClassNotFoundException e) {
+                logger.warn("A classe '{}' da propriedade 'mobile.retry.exceptions' não foi localizada", className.trim());
+            }
+        }
+        return classes;
+    }
+
+    private static boolean sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static final class Stats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+    }
+}
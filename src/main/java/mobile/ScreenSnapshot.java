@@ -0,0 +1,398 @@
+package mobile;
+
+import exceptions.AutomationException;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Rectangle;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fotografia da hierarquia de elementos da tela, obtida com um único 'getPageSource'. O XML é lido com um
+ * parser de streaming (StAX) para uma lista compacta de nós, indexada por resource-id, classe, texto e
+ * content-desc, permitindo responder localmente a consultas de presença, visibilidade, texto e posição
+ * para vários localizadores. Consultas XPath utilizam um DOM criado somente na primeira consulta XPath.
+ * <p>
+ * A fotografia representa a tela no instante da captura: após qualquer interação uma nova fotografia deve ser obtida.
+ */
+public class ScreenSnapshot {
+
+    private static final Pattern ANDROID_BOUNDS = Pattern.compile("\\[(-?\\d+),(-?\\d+)]\\[(-?\\d+),(-?\\d+)]");
+    private static final Set<String> SUPPORTED_STRATEGIES = Set.of("id", "accessibility id", "name", "class name", "xpath");
+    private static final XMLInputFactory xmlInputFactory = createXmlInputFactory();
+
+    private final String source;
+    private final List<Element> elements = new ArrayList<>();
+    private final Map<String, List<Element>> byResourceId = new HashMap<>();
+    private final Map<String, List<Element>> byClassName = new HashMap<>();
+    private final Map<String, List<Element>> byText = new HashMap<>();
+    private final Map<String, List<Element>> byContentDesc = new HashMap<>();
+    private Map<Node, Element> domIndex;
+    private Document document;
+
+    private ScreenSnapshot(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Captura a hierarquia da tela atual do driver vinculado à thread.
+     *
+     * @return ScreenSnapshot
+     */
+    public static ScreenSnapshot capture() {
+        return parse(Mobile.getDriver().getPageSource());
+    }
+
+    /**
+     * Cria a fotografia a partir do XML retornado pelo 'getPageSource' (UiAutomator2 ou XCUITest).
+     *
+     * @param pageSource XML da hierarquia da tela
+     * @return ScreenSnapshot
+     */
+    public static ScreenSnapshot parse(String pageSource) {
+        ScreenSnapshot snapshot = new ScreenSnapshot(pageSource);
+        try {
+            XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(new StringReader(pageSource));
+            List<Element> stack = new ArrayList<>();
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    Element parent = stack.isEmpty() ? null : stack.get(stack.size() - 1);
+                    Element element = snapshot.add(reader, parent);
+                    stack.add(element);
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    stack.remove(stack.size() - 1);
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new AutomationException("Falha ao interpretar o page source da tela - [%s]", e.getMessage());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Indica se o localizador pode ser avaliado localmente em uma fotografia da tela.
+     *
+     * @param locator localizador do elemento
+     * @return boolean
+     */
+    public static boolean supports(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            return false;
+        }
+        return SUPPORTED_STRATEGIES.contains(((By.Remotable) locator).getRemoteParameters().using());
+    }
+
+    /**
+     * Retorna todos os elementos que correspondem ao localizador, na ordem do documento.
+     * São suportadas as estratégias id, accessibility id, class name, name e xpath.
+     *
+     * @param locator localizador do elemento
+     * @return List
+     */
+    public List<Element> findAll(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            throw new AutomationException("O localizador '%s' não pode ser avaliado na fotografia da tela", locator);
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        String value = String.valueOf(parameters.value());
+        switch (parameters.using()) {
+            case "id":
+                List<Element> found = byResourceId.getOrDefault(value, Collections.emptyList());
+                if (found.isEmpty() && !value.contains(":id/")) {
+                    found = byResourceIdSuffix(":id/" + value);
+                }
+                return found.isEmpty() ? byContentDesc.getOrDefault(value, Collections.emptyList()) : found;
+            case "accessibility id":
+            case "name":
+                return byContentDesc.getOrDefault(value, Collections.emptyList());
+            case "class name":
+                return byClassName.getOrDefault(value, Collections.emptyList());
+            case "xpath":
+                return findByXpath(value);
+            default:
+                throw new AutomationException("A estratégia '%s' não é suportada pela fotografia da tela", parameters.using());
+        }
+    }
+
+    /**
+     * Retorna o primeiro elemento que corresponde ao localizador.
+     *
+     * @param locator localizador do elemento
+     * @return Optional
+     */
+    public Optional<Element> find(By locator) {
+        List<Element> found = findAll(locator);
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+    }
+
+    public boolean isPresent(By locator) {
+        return !findAll(locator).isEmpty();
+    }
+
+    /**
+     * Verifica se algum elemento correspondente ao localizador está visível e possui área na tela.
+     *
+     * @param locator localizador do elemento
+     * @return boolean
+     */
+    public boolean isDisplayed(By locator) {
+        for (Element element : findAll(locator)) {
+            if (element.isDisplayed()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retorna o texto do primeiro elemento correspondente ao localizador ou null caso não exista.
+     *
+     * @param locator localizador do elemento
+     * @return String
+     */
+    public String getText(By locator) {
+        return find(locator).map(Element::getText).orElse(null);
+    }
+
+    /**
+     * Retorna a posição e o tamanho do primeiro elemento correspondente ao localizador ou null caso não exista.
+     *
+     * @param locator localizador do elemento
+     * @return Rectangle
+     */
+    public Rectangle getBounds(By locator) {
+        return find(locator).map(Element::getBounds).orElse(null);
+    }
+
+    /**
+     * Retorna os elementos que possuem exatamente o texto informado.
+     *
+     * @param text texto do elemento
+     * @return List
+     */
+    public List<Element> findByText(String text) {
+        return byText.getOrDefault(text, Collections.emptyList());
+    }
+
+    /**
+     * Retorna uma impressão digital da hierarquia (classe, id, texto, content-desc e posição de cada elemento).
+     * Duas fotografias com a mesma impressão digital representam a mesma tela na mesma posição de rolagem.
+     *
+     * @return long
+     */
+    public long fingerprint() {
+        long hash = 1;
+        for (Element element : elements) {
+            hash = 31 * hash + Objects.hash(element.className, element.resourceId, element.text, element.contentDesc);
+            hash = 31 * hash + Objects.hash(element.bounds.getX(), element.bounds.getY(), element.bounds.getWidth(), element.bounds.getHeight());
+        }
+        return hash;
+    }
+
+    public List<Element> getElements() {
+        return Collections.unmodifiableList(elements);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    private Element add(XMLStreamReader reader, Element parent) {
+        String type = attribute(reader, "type");
+        String className = attribute(reader, "class");
+        if (className == null) {
+            className = type != null ? type : reader.getLocalName();
+        }
+        String resourceId = attribute(reader, "resource-id");
+        String contentDesc = attribute(reader, "content-desc");
+        String text = attribute(reader, "text");
+        if (type != null) {
+            // XCUITest: 'name' é o accessibility id e 'value'/'label' o texto exibido
+            contentDesc = attribute(reader, "name");
+            text = attribute(reader, "value") != null ? attribute(reader, "value") : attribute(reader, "label");
+        }
+        String displayed = attribute(reader, "displayed") != null ? attribute(reader, "displayed") : attribute(reader, "visible");
+        Element element = new Element(elements.size(), parent, className, resourceId, text, contentDesc, bounds(reader),
+                displayed == null || Boolean.parseBoolean(displayed), !"false".equals(attribute(reader, "enabled")));
+
+        elements.add(element);
+        index(byClassName, className, element);
+        index(byResourceId, resourceId, element);
+        index(byText, text, element);
+        index(byContentDesc, contentDesc, element);
+        return element;
+    }
+
+    private List<Element> byResourceIdSuffix(String suffix) {
+        List<Element> found = new ArrayList<>();
+        for (Map.Entry<String, List<Element>> entry : byResourceId.entrySet()) {
+            if (entry.getKey().endsWith(suffix)) {
+                found.addAll(entry.getValue());
+            }
+        }
+        found.sort((a, b) -> Integer.compare(a.index, b.index));
+        return found;
+    }
+
+    private synchronized List<Element> findByXpath(String xpath) {
+        try {
+            if (document == null) {
+                DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+                factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+                document = factory.newDocumentBuilder().parse(new InputSource(new StringReader(source)));
+                domIndex = new IdentityHashMap<>();
+                NodeList all = document.getElementsByTagName("*");
+                for (int i = 0; i < all.getLength() && i < elements.size(); i++) {
+                    domIndex.put(all.item(i), elements.get(i));
+                }
+            }
+            NodeList nodes = (NodeList) XPathFactory.newInstance().newXPath().evaluate(xpath, document, XPathConstants.NODESET);
+            List<Element> found = new ArrayList<>(nodes.getLength());
+            for (int i = 0; i < nodes.getLength(); i++) {
+                Element element = domIndex.get(nodes.item(i));
+                if (element != null) {
+                    found.add(element);
+                }
+            }
+            return found;
+        } catch (XPathExpressionException e) {
+            throw new AutomationException("XPath inválido '%s' - [%s]", xpath, e.getMessage());
+        } catch (Exception e) {
+            throw new AutomationException("Falha ao interpretar o page source da tela - [%s]", e.getMessage());
+        }
+    }
+
+    private static Rectangle bounds(XMLStreamReader reader) {
+        String bounds = attribute(reader, "bounds");
+        if (bounds != null) {
+            Matcher matcher = ANDROID_BOUNDS.matcher(bounds);
+            if (matcher.matches()) {
+                int x1 = Integer.parseInt(matcher.group(1));
+                int y1 = Integer.parseInt(matcher.group(2));
+                return new Rectangle(x1, y1, Integer.parseInt(matcher.group(4)) - y1, Integer.parseInt(matcher.group(3)) - x1);
+            }
+        }
+        String x = attribute(reader, "x");
+        String y = attribute(reader, "y");
+        String width = attribute(reader, "width");
+        String height = attribute(reader, "height");
+        if (x != null && y != null && width != null && height != null) {
+            return new Rectangle(Integer.parseInt(x), Integer.parseInt(y), Integer.parseInt(height), Integer.parseInt(width));
+        }
+        return new Rectangle(0, 0, 0, 0);
+    }
+
+    private static String attribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static void index(Map<String, List<Element>> index, String key, Element element) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ArrayList<>(1)).add(element);
+        }
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+
+    /**
+     * Elemento da fotografia da tela.
+     */
+    public static final class Element {
+        private final int index;
+        private final Element parent;
+        private final String className;
+        private final String resourceId;
+        private final String text;
+        private final String contentDesc;
+        private final Rectangle bounds;
+        private final boolean displayed;
+        private final boolean enabled;
+
+        private Element(int index, Element parent, String className, String resourceId, String text, String contentDesc,
+                        Rectangle bounds, boolean displayed, boolean enabled) {
+            this.index = index;
+            this.parent = parent;
+            this.className = className;
+            this.resourceId = resourceId;
+            this.text = text;
+            this.contentDesc = contentDesc;
+            this.bounds = bounds;
+            this.displayed = displayed;
+            this.enabled = enabled;
+        }
+
+        public Element getParent() {
+            return parent;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getResourceId() {
+            return resourceId;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getContentDesc() {
+            return contentDesc;
+        }
+
+        public Rectangle getBounds() {
+            return bounds;
+        }
+
+        /**
+         * Indica se o elemento está visível e possui área na tela.
+         *
+         * @return boolean
+         */
+        public boolean isDisplayed() {
+            return displayed && bounds.getWidth() > 0 && bounds.getHeight() > 0;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[id=%s, text=%s, desc=%s, bounds=%s]", className, resourceId, text, contentDesc, bounds);
+        }
+    }
+}
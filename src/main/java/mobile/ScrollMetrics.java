@@ -0,0 +1,78 @@
+package mobile;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registra as rolagens por swipes do {@code scrollToElement}: elementos localizados e não localizados, swipes
+ * executados, swipes em que a lista se moveu (úteis) e rolagens encerradas pela detecção do fim da lista.
+ * Registrado no {@link MetricsRegistry} como 'scroll': habilitado por padrão, pode ser desligado pela propriedade
+ * 'mobile.metrics.scroll'.
+ */
+public final class ScrollMetrics {
+
+    static final Logger logger = LogManager.getLogger(ScrollMetrics.class);
+
+    private static final LongAdder found = new LongAdder();
+    private static final LongAdder notFound = new LongAdder();
+    private static final LongAdder swipes = new LongAdder();
+    private static final LongAdder usefulSwipes = new LongAdder();
+    private static final LongAdder endOfList = new LongAdder();
+    private static final boolean isActive = MetricsRegistry.register("scroll", ScrollMetrics::getSummary,
+            () -> found.sum() + notFound.sum() > 0, ScrollMetrics::reset);
+
+    private ScrollMetrics() {
+    }
+
+    /**
+     * Registra uma rolagem até um elemento.
+     *
+     * @param swipeCount       swipes executados
+     * @param usefulSwipeCount swipes em que a hierarquia da tela mudou
+     * @param elementFound     indica se o elemento foi localizado
+     * @param endReached       indica se a rolagem foi encerrada pela detecção do fim da lista
+     */
+    public static void record(int swipeCount, int usefulSwipeCount, boolean elementFound, boolean endReached) {
+        if (isActive) {
+            (elementFound ? found : notFound).increment();
+            swipes.add(swipeCount);
+            usefulSwipes.add(usefulSwipeCount);
+            if (endReached) {
+                endOfList.increment();
+            }
+        }
+    }
+
+    public static long getSwipes() {
+        return swipes.sum();
+    }
+
+    public static long getUsefulSwipes() {
+        return usefulSwipes.sum();
+    }
+
+    /**
+     * Retorna o resumo das rolagens.
+     *
+     * @return String
+     */
+    public static String getSummary() {
+        StringBuilder summary = new StringBuilder("Rolagens por swipes:\n");
+        summary.append(String.format("%-12s %14s %8s %8s %14s%n", "localizados", "não localizados", "swipes", "úteis", "fim da lista"));
+        summary.append(String.format("%-12d %14d %8d %8d %14d%n", found.sum(), notFound.sum(), swipes.sum(), usefulSwipes.sum(), endOfList.sum()));
+        return summary.toString();
+    }
+
+    /**
+     * Descarta as rolagens registradas.
+     */
+    public static void reset() {
+        found.reset();
+        notFound.reset();
+        swipes.reset();
+        usefulSwipes.reset();
+        endOfList.reset();
+    }
+}
@@ -0,0 +1,210 @@
+package mobile;
+
+import data.InternalPropertiesLoader;
+import io.appium.java_client.AppiumDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cria em segundo plano a próxima sessão Appium logo após a finalização do driver do cenário,
+ * para que o próximo {@link Mobile#getDriver()} receba um driver já conectado.
+ * Habilitado pela propriedade 'mobile.session.prewarm' do arquivo configuration_core.properties.
+ * Na finalização, as sessões ainda em criação são aguardadas pelo tempo da propriedade
+ * 'mobile.session.prewarm.shutdownTimeout' (em segundos, padrão 120) para que sejam encerradas no servidor.
+ */
+public final class SessionPrewarmer {
+
+    static final Logger logger = LogManager.getLogger(SessionPrewarmer.class);
+
+    private static final InternalPropertiesLoader pLoader = new InternalPropertiesLoader("configuration_core.properties");
+    private static final boolean isActive = Boolean.parseBoolean(pLoader.getValue("mobile.session.prewarm", "false"));
+    private static final long SHUTDOWN_TIMEOUT = Long.parseLong(pLoader.getValue("mobile.session.prewarm.shutdownTimeout", "120").trim());
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "appium-prewarm-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final AtomicLong scheduled = new AtomicLong();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong failures = new AtomicLong();
+    private static final AtomicLong discarded = new AtomicLong();
+    private static final AtomicLong savedMillis = new AtomicLong();
+
+    private SessionPrewarmer() {
+    }
+
+    public static boolean isActive() {
+        return isActive;
+    }
+
+    /**
+     * Inicia a criação de uma nova sessão, com as mesmas capabilities, para o próximo cenário da sessão informada.
+     *
+     * @param session sessão registrada no {@link DriverRegistry}
+     * @param cap     capabilities utilizadas na criação da nova sessão
+     */
+    static void schedule(DriverSession session, DesiredCapabilities cap) {
+        if (!isActive || cap == null || session.getPrewarmedDriver() != null) {
+            return;
+        }
+        MobilePlatform platform = session.getPlatformName();
+        session.setPrewarmedDriver(CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                AppiumDriver driver = Mobile.newDriver(platform, cap);
+                return new PrewarmedDriver(driver, cap, (System.nanoTime() - start) / 1_000_000);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor));
+        scheduled.incrementAndGet();
+        logger.info("Pré-aquecimento da próxima sessão Appium iniciado em segundo plano.");
+    }
+
+    /**
+     * Retorna o driver pré-aquecido da sessão, aguardando a sua criação caso ainda esteja em andamento.
+     *
+     * @param session sessão registrada no {@link DriverRegistry}
+     * @param cap     capabilities esperadas para o driver
+     * @return AppiumDriver ou null quando não houver driver pré-aquecido compatível
+     */
+    static AppiumDriver take(DriverSession session, DesiredCapabilities cap) {
+        CompletableFuture<PrewarmedDriver> future = session.getPrewarmedDriver();
+        session.setPrewarmedDriver(null);
+        if (future == null) {
+            if (isActive) misses.incrementAndGet();
+            return null;
+        }
+
+        long start = System.nanoTime();
+        PrewarmedDriver prewarmed;
+        try {
+            prewarmed = future.get();
+        } catch (Exception e) {
+            if (isActive) {
+                failures.incrementAndGet();
+                misses.incrementAndGet();
+            }
+            logger.warn("Falha no pré-aquecimento da sessão Appium, uma nova sessão será criada - [{}]", e.getMessage());
+            return null;
+        }
+
+        if (!prewarmed.cap.asMap().equals(cap.asMap())) {
+            if (isActive) misses.incrementAndGet();
+            quit(prewarmed.driver);
+            logger.info("Sessão pré-aquecida descartada: as capabilities do cenário foram alteradas.");
+            return null;
+        }
+
+        long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+        long saved = Math.max(0, prewarmed.creationMillis - waitedMillis);
+        hits.incrementAndGet();
+        savedMillis.addAndGet(saved);
+        logger.info("Utilizando sessão Appium pré-aquecida (criação {} ms, espera {} ms).", prewarmed.creationMillis, waitedMillis);
+        return prewarmed.driver;
+    }
+
+    /**
+     * Descarta o driver pré-aquecido da sessão, caso exista. A criação em andamento não é interrompida, pois o
+     * servidor Appium concluiria a sessão mesmo assim: o driver é finalizado assim que a criação terminar.
+     *
+     * @param session sessão registrada no {@link DriverRegistry}
+     * @return etapa concluída quando o driver pré-aquecido tiver sido finalizado
+     */
+    static CompletableFuture<Void> discard(DriverSession session) {
+        CompletableFuture<PrewarmedDriver> future = session.getPrewarmedDriver();
+        session.setPrewarmedDriver(null);
+        if (future == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (isActive) discarded.incrementAndGet();
+        return future.handle((prewarmed, error) -> {
+            if (prewarmed != null) {
+                quit(prewarmed.driver);
+            } else {
+                logger.debug("Sessão pré-aquecida descartada não pôde ser criada - [{}]", error.getMessage());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Descarta todas as sessões pré-aquecidas ainda não utilizadas, aguardando a finalização das sessões em
+     * criação, e registra as métricas no log.
+     */
+    public static void shutdown() {
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (DriverSession session : DriverRegistry.getSessions()) {
+            pending.add(discard(session));
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).get(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Sessões pré-aquecidas não finalizadas em {} s - [{}]", SHUTDOWN_TIMEOUT, e.getMessage());
+        }
+        if (scheduled.get() > 0) {
+            logger.info(getSummary());
+        }
+    }
+
+    /**
+     * Retorna o resumo das métricas do pré-aquecimento de sessões.
+     *
+     * @return String
+     */
+    public static String getSummary() {
+        long requested = hits.get() + misses.get();
+        double hitRate = requested == 0 ? 0 : (hits.get() * 100.0) / requested;
+        return String.format("Pré-aquecimento de sessões Appium: agendadas=%d, aproveitadas=%d, perdidas=%d, falhas=%d, descartadas=%d, taxa de acerto=%.1f%%, tempo economizado=%d ms",
+                scheduled.get(), hits.get(), misses.get(), failures.get(), discarded.get(), hitRate, savedMillis.get());
+    }
+
+    public static long getHits() {
+        return hits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    public static long getSavedMillis() {
+        return savedMillis.get();
+    }
+
+    private static void quit(AppiumDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            logger.debug("Falha ao finalizar sessão pré-aquecida - [{}]", e.getMessage());
+        }
+    }
+
+    static final class PrewarmedDriver {
+        private final AppiumDriver driver;
+        private final DesiredCapabilities cap;
+        private final long creationMillis;
+
+        private PrewarmedDriver(AppiumDriver driver, DesiredCapabilities cap, long creationMillis) {
+            this.driver = driver;
+            this.cap = cap;
+            this.creationMillis = creationMillis;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package mobile;
+
+import data.InternalPropertiesLoader;
+import exceptions.AutomationException;
+
+/**
+ * Define por quanto tempo uma sessão Appium é mantida entre os cenários '@Mobile'.
+ * Configurado pela propriedade 'mobile.session.scope' (scenario, feature ou run).
+ */
+public enum SessionScope {
+    /**
+     * Uma nova sessão para cada cenário (comportamento padrão).
+     */
+    SCENARIO,
+    /**
+     * A sessão é mantida entre os cenários de uma mesma feature.
+     */
+    FEATURE,
+    /**
+     * A sessão é mantida durante toda a execução.
+     */
+    RUN;
+
+    private static final SessionScope configured = fromValue(new InternalPropertiesLoader("configuration_core.properties")
+            .getValue("mobile.session.scope", "scenario"));
+
+    public static SessionScope getConfigured() {
+        return configured;
+    }
+
+    /**
+     * Verifica se a sessão aberta pode ser reaproveitada pelo cenário da feature informada. A sessão nunca é
+     * reaproveitada quando a plataforma do cenário é diferente da plataforma do driver aberto.
+     *
+     * @param session    sessão registrada no {@link DriverRegistry}
+     * @param featureUri feature do cenário que será executado
+     * @return boolean
+     */
+    public boolean canReuse(DriverSession session, String featureUri) {
+        if (session.getAppiumDriver() == null || session.getDriverPlatform() != session.getPlatformName()) {
+            return false;
+        }
+        switch (this) {
+            case RUN:
+                return true;
+            case FEATURE:
+                return featureUri != null && featureUri.equals(session.getFeatureUri());
+            default:
+                return false;
+        }
+    }
+
+    static SessionScope fromValue(String value) {
+        for (SessionScope scope : values()) {
+            if (scope.name().equalsIgnoreCase(value)) {
+                return scope;
+            }
+        }
+        throw new AutomationException("Valor '%s' inválido para a propriedade 'mobile.session.scope'. Valores aceitos: scenario, feature, run", value);
+    }
+}
@@ -0,0 +1,101 @@
+package mobile;
+
+import exceptions.AutomationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Grafo de dependências das etapas de inicialização da sessão mobile (Appium Server, Device Farm,
+ * capabilities, validação do aplicativo e criação do driver). Etapas independentes são executadas
+ * em paralelo e o tempo de cada etapa é registrado no log.
+ */
+final class StartupGraph {
+
+    static final Logger logger = LogManager.getLogger(StartupGraph.class);
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "mobile-startup-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+
+    /**
+     * Adiciona uma etapa ao grafo. As dependências devem ter sido adicionadas anteriormente.
+     *
+     * @param name      nome da etapa
+     * @param task      ação executada pela etapa
+     * @param dependsOn etapas que devem ser concluídas antes desta
+     * @return StartupGraph
+     */
+    StartupGraph node(String name, Runnable task, String... dependsOn) {
+        List<Node> dependencies = new ArrayList<>();
+        for (String dependency : dependsOn) {
+            Node node = nodes.get(dependency);
+            if (node == null) {
+                throw new IllegalArgumentException(String.format("A etapa '%s' depende da etapa '%s', que não foi declarada", name, dependency));
+            }
+            dependencies.add(node);
+        }
+        nodes.put(name, new Node(name, task, dependencies));
+        return this;
+    }
+
+    /**
+     * Executa todas as etapas respeitando as dependências e aguarda a conclusão.
+     */
+    void run() {
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            CompletableFuture<?>[] dependencies = node.dependencies.stream().map(n -> n.future).toArray(CompletableFuture[]::new);
+            node.future = CompletableFuture.allOf(dependencies).thenRunAsync(node::execute, executor);
+            futures.add(node.future);
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof AutomationException) {
+                throw (AutomationException) cause;
+            }
+            throw new AutomationException("Falha na inicialização da sessão mobile - [%s]", cause.getMessage());
+        }
+        logger.info("Inicialização da sessão mobile concluída em {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static final class Node {
+        private final String name;
+        private final Runnable task;
+        private final List<Node> dependencies;
+        private CompletableFuture<Void> future;
+
+        private Node(String name, Runnable task, List<Node> dependencies) {
+            this.name = name;
+            this.task = task;
+            this.dependencies = dependencies;
+        }
+
+        private void execute() {
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                logger.info("Etapa de inicialização '{}' executada em {} ms", name, (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+    }
+}
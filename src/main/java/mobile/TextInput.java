@@ -0,0 +1,312 @@
+package mobile;
+
+import data.InternalPropertiesLoader;
+import exceptions.AutomationException;
+import io.appium.java_client.android.nativekey.AndroidKey;
+import io.appium.java_client.android.nativekey.KeyEvent;
+import io.appium.java_client.android.nativekey.PressesKey;
+import io.appium.java_client.clipboard.HasClipboard;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.remote.RemoteWebElement;
+import utils.Tracer;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Motor de digitação de textos em campos nativos. Possui várias estratégias de digitação e escolhe
+ * automaticamente, por tipo de elemento e plataforma (ex.: 'ANDROID:android.widget.EditText'), a primeira
+ * estratégia compatível que preenche o campo corretamente, na ordem da mais rápida para a mais lenta.
+ * A escolha é mantida em cache e só é refeita quando a estratégia escolhida falhar.
+ * Configurado pelas propriedades do arquivo configuration_core.properties:
+ * <ul>
+ *     <li>mobile.input.strategies - ordem das estratégias, separadas por vírgula
+ *     (padrão SEND_KEYS,REPLACE_VALUE,MOBILE_TYPE,ACTIONS,CLIPBOARD,ADB_SHELL);</li>
+ *     <li>mobile.input.verify - quando conferir o texto do campo após a digitação: 'first' na primeira digitação
+ *     em cada campo de PageObject (padrão; elementos fora de PageObjects são sempre conferidos), 'always' em
+ *     todas as digitações ou 'never'.</li>
+ * </ul>
+ * A estratégia ADB_SHELL exige o Appium Server iniciado com '--allow-insecure adb_shell'.
+ */
+public final class TextInput {
+
+    static final Logger logger = LogManager.getLogger(TextInput.class);
+
+    private static final InternalPropertiesLoader pLoader = new InternalPropertiesLoader("configuration_core.properties");
+    private static final List<Strategy> order = loadOrder(pLoader.getValue("mobile.input.strategies",
+            "SEND_KEYS,REPLACE_VALUE,MOBILE_TYPE,ACTIONS,CLIPBOARD,ADB_SHELL"));
+    private static final String verify = pLoader.getValue("mobile.input.verify", "first").trim().toLowerCase();
+    private static final Pattern MASK_CHARACTER = Pattern.compile("[^\\p{L}\\p{N}]");
+    private static final Pattern ADB_SAFE_TEXT = Pattern.compile("[A-Za-z0-9@._+\\- ]*");
+    private static final Map<String, Strategy> chosen = new ConcurrentHashMap<>();
+    private static final Set<String> verifiedFields = ConcurrentHashMap.newKeySet();
+    private static final Map<WebElement, String> elementTypes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private TextInput() {
+    }
+
+    /**
+     * Estratégias de digitação.
+     */
+    public enum Strategy {
+        /**
+         * 'sendKeys' no elemento: um comando; no Android substitui o texto, no iOS digita ao final do texto.
+         */
+        SEND_KEYS(false) {
+            @Override
+            void type(WebElement element, String text) {
+                element.sendKeys(text);
+            }
+        },
+        /**
+         * 'mobile: replaceElementValue' do UiAutomator2: substitui o texto em um comando, sem teclado.
+         */
+        REPLACE_VALUE(false) {
+            @Override
+            boolean supports(MobilePlatform platform, String text) {
+                return platform == MobilePlatform.ANDROID;
+            }
+
+            @Override
+            void type(WebElement element, String text) {
+                Mobile.getDriver().executeScript("mobile: replaceElementValue", Map.of("elementId", elementId(element), "text", text));
+            }
+        },
+        /**
+         * 'mobile: type' do UiAutomator2: digita o texto no campo com foco em um comando.
+         */
+        MOBILE_TYPE(true) {
+            @Override
+            boolean supports(MobilePlatform platform, String text) {
+                return platform == MobilePlatform.ANDROID;
+            }
+
+            @Override
+            void type(WebElement element, String text) {
+                Mobile.getDriver().executeScript("mobile: type", Map.of("text", text));
+            }
+        },
+        /**
+         * Uma única sequência de ações W3C com todas as teclas do texto.
+         */
+        ACTIONS(true) {
+            @Override
+            void type(WebElement element, String text) {
+                new Actions(Mobile.getDriver()).sendKeys(text).perform();
+            }
+        },
+        /**
+         * Copia o texto para a área de transferência do device e o cola no campo com foco.
+         */
+        CLIPBOARD(true) {
+            @Override
+            boolean supports(MobilePlatform platform, String text) {
+                return platform == MobilePlatform.ANDROID;
+            }
+
+            @Override
+            void type(WebElement element, String text) {
+                ((HasClipboard) Mobile.getDriver()).setClipboardText(text);
+                ((PressesKey) Mobile.getDriver()).pressKey(new KeyEvent(AndroidKey.PASTE));
+            }
+        },
+        /**
+         * 'adb shell input text', limitado a letras, números, espaços e os caracteres @._+-.
+         */
+        ADB_SHELL(true) {
+            @Override
+            boolean supports(MobilePlatform platform, String text) {
+                return platform == MobilePlatform.ANDROID && ADB_SAFE_TEXT.matcher(text).matches();
+            }
+
+            @Override
+            void type(WebElement element, String text) {
+                Mobile.getDriver().executeScript("mobile: shell",
+                        Map.of("command", "input", "args", List.of("text", text.replace(" ", "%s"))));
+            }
+        };
+
+        private final boolean requiresFocus;
+
+        Strategy(boolean requiresFocus) {
+            this.requiresFocus = requiresFocus;
+        }
+
+        boolean supports(MobilePlatform platform, String text) {
+            return true;
+        }
+
+        abstract void type(WebElement element, String text);
+
+        /**
+         * Prepara o campo e digita o texto. As estratégias que digitam no campo com foco limpam o campo e o
+         * selecionam antes da digitação.
+         */
+        void apply(WebElement element, String text) {
+            if (requiresFocus) {
+                element.clear();
+                element.click();
+            }
+            type(element, text);
+        }
+    }
+
+    /**
+     * Digita o texto no campo com a estratégia escolhida para o tipo do elemento, escolhendo-a na primeira digitação.
+     *
+     * @param element campo de texto nativo
+     * @param text    texto a ser digitado
+     */
+    public static void type(WebElement element, String text) {
+        Mobile.getDriver();
+        MobilePlatform platform = Mobile.getPlatformName();
+        String type = platform + ":" + elementType(element);
+
+        Strategy strategy = chosen.get(type);
+        if (strategy != null) {
+            try (Tracer.Span span = Tracer.span("input", strategy.name())) {
+                strategy.apply(element, text);
+                if (!requiresVerification(element, type) || isTyped(element, text, platform)) {
+                    return;
+                }
+                logger.warn("A estratégia de digitação {} não preencheu o campo {}, escolhendo outra estratégia", strategy, type);
+            } catch (WebDriverException e) {
+                logger.warn("A estratégia de digitação {} falhou para o campo {}, escolhendo outra estratégia - [{}]", strategy, type, e.getMessage());
+            }
+            chosen.remove(type, strategy);
+        }
+        choose(element, text, platform, type);
+    }
+
+    /**
+     * Retorna as estratégias escolhidas por tipo de elemento.
+     *
+     * @return Map
+     */
+    public static Map<String, Strategy> getChosenStrategies() {
+        return Collections.unmodifiableMap(chosen);
+    }
+
+    private static void choose(WebElement element, String text, MobilePlatform platform, String type) {
+        for (Strategy strategy : order) {
+            if (!strategy.supports(platform, text)) {
+                continue;
+            }
+            try (Tracer.Span span = Tracer.span("input", strategy.name())) {
+                strategy.apply(element, text);
+                if ("never".equals(verify) || isTyped(element, text, platform)) {
+                    chosen.put(type, strategy);
+                    String field = fieldKey(element, type);
+                    if (field != null) {
+                        verifiedFields.add(field);
+                    }
+                    logger.debug("Estratégia de digitação escolhida para {}: {}", type, strategy);
+                    return;
+                }
+                logger.debug("A estratégia de digitação {} não preencheu o campo {}", strategy, type);
+            } catch (WebDriverException e) {
+                logger.debug("A estratégia de digitação {} não é suportada pelo campo {} - [{}]", strategy, type, e.getMessage());
+            }
+        }
+        throw new AutomationException("Não foi possível preencher o campo '%s' com nenhuma das estratégias de digitação %s", type, order);
+    }
+
+    /**
+     * Indica se a digitação com a estratégia já escolhida deve ser conferida. Com 'first' a estratégia escolhida
+     * para o tipo do elemento é conferida uma vez em cada campo de PageObject, pois campos do mesmo tipo podem
+     * se comportar de forma diferente (ex.: máscaras ou limites de tamanho).
+     */
+    private static boolean requiresVerification(WebElement element, String type) {
+        if ("always".equals(verify)) {
+            return true;
+        }
+        if (!"first".equals(verify)) {
+            return false;
+        }
+        String field = fieldKey(element, type);
+        return field == null || verifiedFields.add(field);
+    }
+
+    private static String fieldKey(WebElement element, String type) {
+        Field field = PageObjectDecorator.fieldOf(element);
+        return field == null ? null : type + " " + field.getDeclaringClass().getName() + "." + field.getName();
+    }
+
+    /**
+     * Confere se o campo contém exatamente o texto digitado. Campos de senha não são conferidos.
+     */
+    private static boolean isTyped(WebElement element, String text, MobilePlatform platform) {
+        if (text.isEmpty()) {
+            return true;
+        }
+        String value;
+        if (platform == MobilePlatform.IOS) {
+            if (elementType(element).contains("SecureTextField")) {
+                return true;
+            }
+            value = element.getAttribute("value");
+        } else {
+            if ("true".equals(element.getAttribute("password"))) {
+                return true;
+            }
+            value = element.getText();
+        }
+        return matches(value, text);
+    }
+
+    /**
+     * Compara o valor do campo com o texto digitado. Os caracteres de máscara do campo (pontuação e espaços, ex.:
+     * '123.456.789-00' para '12345678900') só são desconsiderados quando o texto digitado não possui nenhum
+     * desses caracteres; caso contrário o valor deve ser idêntico ao texto.
+     *
+     * @param value valor atual do campo
+     * @param text  texto digitado
+     * @return boolean
+     */
+    static boolean matches(String value, String text) {
+        if (value == null) {
+            return false;
+        }
+        if (value.equals(text)) {
+            return true;
+        }
+        return !MASK_CHARACTER.matcher(text).find() && MASK_CHARACTER.matcher(value).replaceAll("").equals(text);
+    }
+
+    private static String elementType(WebElement element) {
+        return elementTypes.computeIfAbsent(element, WebElement::getTagName);
+    }
+
+    private static String elementId(WebElement element) {
+        WebElement unwrapped = element;
+        while (unwrapped instanceof WrapsElement) {
+            unwrapped = ((WrapsElement) unwrapped).getWrappedElement();
+        }
+        if (!(unwrapped instanceof RemoteWebElement)) {
+            throw new WebDriverException("Elemento sem identificador remoto: " + element);
+        }
+        return ((RemoteWebElement) unwrapped).getId();
+    }
+
+    private static List<Strategy> loadOrder(String strategies) {
+        List<Strategy> list = new ArrayList<>();
+        for (String name : strategies.split(",")) {
+            if (!name.trim().isEmpty()) {
+                list.add(Strategy.valueOf(name.trim().toUpperCase()));
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+}
@@ -0,0 +1,221 @@
+package mobile;
+
+import data.InternalPropertiesLoader;
+import exceptions.AutomationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.Tracer;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OCR por blocos: a imagem inteira e uma grade de blocos sobrepostos são reconhecidos em paralelo pelos motores
+ * do {@link OcrEngines}. A sobreposição evita que palavras na divisa entre dois blocos sejam cortadas. Assim que
+ * um bloco contém o texto procurado os blocos ainda não iniciados são cancelados e o resultado é retornado sem
+ * aguardar os blocos em execução, que apenas devolvem os seus motores ao pool ao final.
+ * Configurado pelas propriedades do arquivo configuration_core.properties:
+ * <ul>
+ *     <li>mobile.ocr.tiles - colunas x linhas da grade (padrão 2x2; 1x1 reconhece apenas a imagem inteira);</li>
+ *     <li>mobile.ocr.tiles.overlap - sobreposição entre blocos vizinhos, em fração do bloco (padrão 0.1).</li>
+ * </ul>
+ * O texto de cada bloco reconhecido é mantido no {@link OcrCache} da tela. O tempo de cada bloco é registrado no
+ * log (debug) e no {@link Tracer}.
+ */
+final class TiledOcr {
+
+    static final Logger logger = LogManager.getLogger(TiledOcr.class);
+
+    private static final InternalPropertiesLoader pLoader = new InternalPropertiesLoader("configuration_core.properties");
+    private static final String[] GRID = pLoader.getValue("mobile.ocr.tiles", "2x2").trim().toLowerCase().split("x");
+    private static final int COLUMNS = Math.max(1, Integer.parseInt(GRID[0].trim()));
+    private static final int ROWS = Math.max(1, Integer.parseInt(GRID[GRID.length - 1].trim()));
+    private static final double OVERLAP = Double.parseDouble(pLoader.getValue("mobile.ocr.tiles.overlap", "0.1").trim());
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(OcrEngines.size(), runnable -> {
+        Thread thread = new Thread(runnable, "ocr-tile-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final String FULL_IMAGE = "inteira";
+
+    private TiledOcr() {
+    }
+
+    /**
+     * Verifica se o texto está presente na imagem inteira ou em algum dos blocos da tela. Os blocos já
+     * reconhecidos na tela são consultados no {@link OcrCache} e apenas os demais são reconhecidos.
+     *
+     * @param frame tela capturada
+     * @param text  texto procurado
+     * @return true assim que algum bloco contiver o texto
+     */
+    static boolean contains(OcrCache.Frame frame, String text) {
+        List<String> pending = new ArrayList<>();
+        for (String name : names()) {
+            String recognized = frame.getText(region(name));
+            if (recognized == null) {
+                pending.add(name);
+            } else if (recognized.contains(text)) {
+                logger.debug("Texto '{}' encontrado no bloco {} já reconhecido", text, name);
+                return true;
+            }
+        }
+        if (pending.isEmpty()) {
+            return false;
+        }
+
+        BufferedImage image = frame.getPreprocessedImage();
+        List<Tile> tiles = new ArrayList<>();
+        for (Tile tile : tiles(image.getWidth(), image.getHeight())) {
+            if (pending.contains(tile.name)) {
+                tiles.add(tile);
+            }
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        CompletionService<Tile> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Tile>> futures = new ArrayList<>(tiles.size());
+        for (Tile tile : tiles) {
+            futures.add(completion.submit(() -> tile.recognize(image, text, done, frame)));
+        }
+
+        try {
+            for (int i = 0; i < tiles.size(); i++) {
+                Tile tile = completion.take().get();
+                if (tile.found) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AutomationException("OCR por blocos interrompido");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof AutomationException) {
+                throw (AutomationException) cause;
+            }
+            throw new AutomationException("Erro ao realizar OCR: %s", cause.getMessage());
+        } finally {
+            done.set(true);
+            for (Future<Tile> future : futures) {
+                future.cancel(false);
+            }
+            if (logger.isDebugEnabled()) {
+                StringJoiner timings = new StringJoiner(", ");
+                tiles.forEach(tile -> timings.add(tile.toString()));
+                logger.debug("OCR por blocos de '{}': {}", text, timings);
+            }
+        }
+    }
+
+    /**
+     * Monta a imagem inteira seguida da grade de blocos, cada bloco ampliado pela sobreposição em todos os lados.
+     */
+    static List<Tile> tiles(int width, int height) {
+        List<Tile> tiles = new ArrayList<>();
+        tiles.add(new Tile(FULL_IMAGE, 0, 0, width, height));
+        if (COLUMNS * ROWS == 1) {
+            return tiles;
+        }
+        int tileWidth = width / COLUMNS;
+        int tileHeight = height / ROWS;
+        int overlapX = (int) (tileWidth * OVERLAP);
+        int overlapY = (int) (tileHeight * OVERLAP);
+        for (int row = 0; row < ROWS; row++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                int x = Math.max(0, column * tileWidth - overlapX);
+                int y = Math.max(0, row * tileHeight - overlapY);
+                int right = column == COLUMNS - 1 ? width : Math.min(width, (column + 1) * tileWidth + overlapX);
+                int bottom = row == ROWS - 1 ? height : Math.min(height, (row + 1) * tileHeight + overlapY);
+                tiles.add(new Tile(name(column, row), x, y, right - x, bottom - y));
+            }
+        }
+        return tiles;
+    }
+
+    private static List<String> names() {
+        List<String> names = new ArrayList<>();
+        names.add(FULL_IMAGE);
+        if (COLUMNS * ROWS > 1) {
+            for (int row = 0; row < ROWS; row++) {
+                for (int column = 0; column < COLUMNS; column++) {
+                    names.add(name(column, row));
+                }
+            }
+        }
+        return names;
+    }
+
+    private static String name(int column, int row) {
+        return column + "x" + row;
+    }
+
+    private static String region(String name) {
+        return "tile " + name;
+    }
+
+    static final class Tile {
+        private final String name;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+        private volatile boolean found;
+        private volatile long millis = -1;
+
+        private Tile(String name, int x, int y, int width, int height) {
+            this.name = name;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Rectangle getBounds() {
+            return new Rectangle(x, y, width, height);
+        }
+
+        private Tile recognize(BufferedImage image, String text, AtomicBoolean done, OcrCache.Frame frame) {
+            if (done.get()) {
+                return this;
+            }
+            long start = System.nanoTime();
+            try (Tracer.Span span = Tracer.span("ocr", "tile " + name)) {
+                BufferedImage area = width == image.getWidth() && height == image.getHeight() ? image : image.getSubimage(x, y, width, height);
+                String result = OcrEngines.withEngine(engine -> engine.doOCR(area));
+                frame.putText(region(name), result);
+                found = result.contains(text);
+                if (found) {
+                    done.set(true);
+                }
+            } finally {
+                millis = (System.nanoTime() - start) / 1_000_000;
+            }
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            String status = millis < 0 ? "não concluído" : millis + " ms" + (found ? " (encontrado)" : "");
+            return String.format("%s [%d,%d %dx%d] %s", name, x, y, width, height, status);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package mobile;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registra as esperas executadas pelo {@link AdaptiveWait}, agrupadas pelo nome da espera (isView, waitDisappear...):
+ * tempo até a condição ser satisfeita, quantidade de verificações (polls) e esperas esgotadas.
+ * Registrado no {@link MetricsRegistry} como 'waits': habilitado por padrão, pode ser desligado pela propriedade
+ * 'mobile.metrics.waits'.
+ */
+public final class WaitMetrics {
+
+    static final Logger logger = LogManager.getLogger(WaitMetrics.class);
+
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> polls = new ConcurrentHashMap<>();
+    private static final boolean isActive = MetricsRegistry.register("waits", WaitMetrics::getSummary,
+            () -> !histograms.isEmpty(), WaitMetrics::reset);
+
+    private WaitMetrics() {
+    }
+
+    public static boolean isActive() {
+        return isActive;
+    }
+
+    /**
+     * Registra uma espera concluída.
+     *
+     * @param name     nome da espera
+     * @param nanos    duração em nanossegundos
+     * @param polls    quantidade de verificações da condição
+     * @param timedOut indica se a espera terminou sem a condição ser satisfeita
+     */
+    public static void record(String name, long nanos, int polls, boolean timedOut) {
+        if (isActive) {
+            histograms.computeIfAbsent(name, key -> new LatencyHistogram()).record(nanos, timedOut);
+            WaitMetrics.polls.computeIfAbsent(name, key -> new LongAdder()).add(polls);
+        }
+    }
+
+    /**
+     * Retorna o histograma da espera informada ou null caso a espera não tenha sido executada.
+     *
+     * @param name nome da espera
+     * @return LatencyHistogram
+     */
+    public static LatencyHistogram getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    /**
+     * Retorna a quantidade total de verificações realizadas pela espera informada.
+     *
+     * @param name nome da espera
+     * @return long
+     */
+    public static long getPolls(String name) {
+        LongAdder adder = polls.get(name);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Retorna o resumo das esperas, ordenado pelo tempo total de cada espera.
+     *
+     * @return String
+     */
+    public static String getSummary() {
+        List<Map.Entry<String, LatencyHistogram>> entries = new ArrayList<>(histograms.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> e) -> e.getValue().getTotalMillis()).reversed());
+
+        StringBuilder summary = new StringBuilder("Esperas do framework (ms):\n");
+        summary.append(String.format("%-30s %8s %9s %10s %9s %9s %9s %9s %8s %10s%n", "espera", "total", "esgotadas", "tempo",
+                "p50", "p90", "p99", "max", "polls", "polls/esp"));
+        for (Map.Entry<String, LatencyHistogram> entry : entries) {
+            LatencyHistogram h = entry.getValue();
+            long waitPolls = getPolls(entry.getKey());
+            summary.append(String.format("%-30s %8d %9d %10d %9.1f %9.1f %9.1f %9d %8d %10.1f%n", entry.getKey(), h.getCount(), h.getErrors(),
+                    h.getTotalMillis(), h.getPercentileMillis(50), h.getPercentileMillis(90), h.getPercentileMillis(99), h.getMaxMillis(),
+                    waitPolls, h.getCount() == 0 ? 0 : (double) waitPolls / h.getCount()));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Descarta as esperas registradas.
+     */
+    public static void reset() {
+        histograms.clear();
+        polls.clear();
+    }
+}
@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import mobile.Mobile;
@@ -24,7 +25,7 @@ import io.cucumber.junit.CucumberOptions;
 public final class TestInfoGeneral {
 
 	static final Logger logger = LogManager.getLogger(TestInfoGeneral.class);
-	private static ArrayList<Boolean> totalStatus = new ArrayList<Boolean>();
+	private static List<Boolean> totalStatus = Collections.synchronizedList(new ArrayList<Boolean>());
 	private static LocalDateTime startTest;
 	private static String environ;
 	private static InternalPropertiesLoader pLoader = new InternalPropertiesLoader("configuration_core.properties");
@@ -49,9 +50,11 @@ public final class TestInfoGeneral {
 
 	public static Integer getTotalPassed() {
 		Integer cont = 0;
-		for (Boolean status : totalStatus) {
-			if (status)
-				cont += 1;
+		synchronized (totalStatus) {
+			for (Boolean status : totalStatus) {
+				if (status)
+					cont += 1;
+			}
 		}
 
 		return cont;
@@ -59,9 +62,11 @@ public final class TestInfoGeneral {
 
 	public static Integer getTotalFailed() {
 		Integer cont = 0;
-		for (Boolean status : totalStatus) {
-			if (!status)
-				cont += 1;
+		synchronized (totalStatus) {
+			for (Boolean status : totalStatus) {
+				if (!status)
+					cont += 1;
+			}
 		}
 
 		return cont;
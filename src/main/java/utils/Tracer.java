@@ -0,0 +1,155 @@
+package utils;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import data.InternalPropertiesLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro de spans (step -> ação da tela -> comando do driver) exportado ao final da execução
+ * em um arquivo no formato Chrome Trace / Perfetto, que pode ser aberto em 'chrome://tracing' ou 'ui.perfetto.dev'.
+ * Habilitado pela propriedade 'mobile.trace.enabled'. O diretório de saída é definido por 'mobile.trace.dir' (padrão 'target/trace').
+ */
+public final class Tracer {
+
+    static final Logger logger = LogManager.getLogger(Tracer.class);
+
+    private static final InternalPropertiesLoader pLoader = new InternalPropertiesLoader("configuration_core.properties");
+    private static final boolean isActive = Boolean.parseBoolean(pLoader.getValue("mobile.trace.enabled", "false"));
+    private static final String traceDir = pLoader.getValue("mobile.trace.dir", "target/trace");
+
+    private static final long epochOffsetMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()) - TimeUnit.NANOSECONDS.toMicros(System.nanoTime());
+    private static final ConcurrentLinkedQueue<JsonObject> events = new ConcurrentLinkedQueue<>();
+    private static final Span NOOP = new Span(null, null, 0);
+
+    private Tracer() {
+    }
+
+    public static boolean isActive() {
+        return isActive;
+    }
+
+    /**
+     * Abre um span na thread atual. Deve ser fechado com try-with-resources.
+     *
+     * @param category categoria do span (step, action, command...)
+     * @param name     nome do span
+     * @return Span
+     */
+    public static Span span(String category, String name) {
+        if (!isActive) {
+            return NOOP;
+        }
+        return new Span(category, name, nowMicros());
+    }
+
+    /**
+     * Registra um span já concluído, com início e duração conhecidos.
+     *
+     * @param category    categoria do span
+     * @param name        nome do span
+     * @param startMicros início do span, obtido por {@link #nowMicros()}
+     * @param error       indica se a execução terminou em erro
+     */
+    public static void complete(String category, String name, long startMicros, boolean error) {
+        if (!isActive) {
+            return;
+        }
+        JsonObject event = new JsonObject();
+        event.addProperty("name", name);
+        event.addProperty("cat", category);
+        event.addProperty("ph", "X");
+        event.addProperty("ts", startMicros);
+        event.addProperty("dur", Math.max(0, nowMicros() - startMicros));
+        event.addProperty("pid", 1);
+        event.addProperty("tid", Thread.currentThread().getId());
+        if (error) {
+            JsonObject args = new JsonObject();
+            args.addProperty("error", true);
+            event.add("args", args);
+        }
+        events.add(event);
+    }
+
+    /**
+     * Retorna o instante atual em microssegundos, na mesma base de tempo dos spans.
+     *
+     * @return long
+     */
+    public static long nowMicros() {
+        return epochOffsetMicros + TimeUnit.NANOSECONDS.toMicros(System.nanoTime());
+    }
+
+    /**
+     * Grava os spans registrados no diretório de saída e os descarta da memória.
+     *
+     * @return arquivo gerado ou null caso não existam spans
+     */
+    public static File export() {
+        if (!isActive || events.isEmpty()) {
+            return null;
+        }
+        JsonArray traceEvents = new JsonArray();
+        JsonObject event;
+        while ((event = events.poll()) != null) {
+            traceEvents.add(event);
+        }
+        JsonObject trace = new JsonObject();
+        trace.add("traceEvents", traceEvents);
+        trace.addProperty("displayTimeUnit", "ms");
+
+        File file = new File(traceDir, String.format("mobile-trace-%s.json", new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date())));
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                writer.write(trace.toString());
+            }
+            logger.info("Trace da execução gravado em {}", file.getAbsolutePath());
+            return file;
+        } catch (IOException e) {
+            logger.error("Falha ao gravar o trace da execução - [{}]", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Span aberto em uma thread. O fechamento registra o evento com a duração medida.
+     */
+    public static final class Span implements AutoCloseable {
+        private final String category;
+        private final String name;
+        private final long startMicros;
+        private boolean error;
+
+        private Span(String category, String name, long startMicros) {
+            this.category = category;
+            this.name = name;
+            this.startMicros = startMicros;
+        }
+
+        /**
+         * Marca o span como terminado em erro.
+         */
+        public void error() {
+            this.error = true;
+        }
+
+        @Override
+        public void close() {
+            if (name != null) {
+                complete(category, name, startMicros, error);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package mobile;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineTest {
+
+    @Test
+    void clipWithoutDeadlineKeepsTheTimeout() {
+        assertNull(Deadline.current());
+        assertEquals(Duration.ofSeconds(30), Deadline.clip(Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void clipLimitsTheTimeoutToTheRemainingTime() {
+        try (Deadline deadline = Deadline.start(Duration.ofMillis(200))) {
+            assertSame(deadline, Deadline.current());
+            assertTrue(Deadline.clip(Duration.ofSeconds(30)).compareTo(Duration.ofMillis(200)) <= 0);
+            assertEquals(Duration.ofMillis(10), Deadline.clip(Duration.ofMillis(10)));
+        }
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    void innerDeadlineNeverExceedsTheOuterOne() {
+        try (Deadline outer = Deadline.start(Duration.ofMillis(200))) {
+            try (Deadline inner = Deadline.start(Duration.ofSeconds(30))) {
+                assertSame(inner, Deadline.current());
+                assertTrue(inner.remaining().compareTo(Duration.ofMillis(200)) <= 0);
+            }
+            assertSame(outer, Deadline.current());
+            try (Deadline inner = Deadline.start(Duration.ofMillis(10))) {
+                assertTrue(inner.remaining().compareTo(Duration.ofMillis(10)) <= 0);
+            }
+        }
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    void expiredDeadline() throws InterruptedException {
+        try (Deadline deadline = Deadline.start(Duration.ofMillis(5))) {
+            Thread.sleep(20);
+            assertTrue(deadline.isExpired());
+            assertEquals(Duration.ZERO, deadline.remaining());
+            assertEquals(Duration.ZERO, Deadline.clip(Duration.ofSeconds(1)));
+        }
+        try (Deadline deadline = Deadline.start(Duration.ofSeconds(30))) {
+            assertFalse(deadline.isExpired());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package mobile;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.interactions.Sequence;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GesturesTest {
+
+    private static final List<String> TAP = List.of("pointerMove", "pointerDown", "pause", "pointerUp");
+    private static final List<String> DRAG = List.of("pointerMove", "pointerDown", "pointerMove", "pointerUp");
+    private static final List<String> IDLE = List.of("pause", "pause", "pause", "pause");
+
+    @Test
+    void singleFingerGesturesShareOneSequence() {
+        List<Sequence> sequences = Gestures.create()
+                .tap(100, 200)
+                .swipe(900, 1200, 100, 1200, Duration.ofMillis(300))
+                .build();
+        assertEquals(1, sequences.size());
+        assertEquals("finger1", sequences.get(0).encode().get("id"));
+        assertEquals(concat(TAP, DRAG), types(sequences.get(0)));
+    }
+
+    @Test
+    void idleFingersArePausedOnEveryTick() {
+        List<Sequence> sequences = Gestures.create()
+                .tap(100, 200)
+                .pinch(540, 1200, 200, 600, Duration.ofMillis(400))
+                .tap(100, 200)
+                .build();
+        assertEquals(2, sequences.size());
+        assertEquals("finger2", sequences.get(1).encode().get("id"));
+        assertEquals(concat(TAP, DRAG, TAP), types(sequences.get(0)));
+        assertEquals(concat(IDLE, DRAG, IDLE), types(sequences.get(1)));
+        for (Map<String, Object> action : actions(sequences.get(1)).subList(0, 4)) {
+            assertEquals(0L, ((Number) action.get("duration")).longValue());
+        }
+    }
+
+    @Test
+    void pauseStopsEveryFinger() {
+        List<Sequence> sequences = Gestures.create()
+                .pinch(540, 1200, 600, 200, Duration.ofMillis(400))
+                .pause(Duration.ofMillis(250))
+                .build();
+        for (Sequence sequence : sequences) {
+            List<Map<String, Object>> actions = actions(sequence);
+            assertEquals(5, actions.size());
+            assertEquals("pause", actions.get(4).get("type"));
+            assertEquals(250L, ((Number) actions.get(4).get("duration")).longValue());
+        }
+    }
+
+    @Test
+    void pinchMovesFingersApartFromTheCenter() {
+        List<Sequence> sequences = Gestures.create().pinch(540, 1200, 200, 600, Duration.ofMillis(400)).build();
+        assertEquals(440, actions(sequences.get(0)).get(0).get("x"));
+        assertEquals(240, actions(sequences.get(0)).get(2).get("x"));
+        assertEquals(640, actions(sequences.get(1)).get(0).get("x"));
+        assertEquals(840, actions(sequences.get(1)).get(2).get("x"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> actions(Sequence sequence) {
+        return (List<Map<String, Object>>) sequence.encode().get("actions");
+    }
+
+    private static List<String> types(Sequence sequence) {
+        return actions(sequence).stream().map(action -> (String) action.get("type")).toList();
+    }
+
+    @SafeVarargs
+    private static List<String> concat(List<String>... parts) {
+        return Arrays.stream(parts).flatMap(List::stream).toList();
+    }
+}
@@ -0,0 +1,86 @@
+package mobile;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    void emptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileMillis(50), 0);
+        assertEquals(0, histogram.getMaxMillis());
+    }
+
+    @Test
+    void countsTotalsAndErrors() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * MILLIS, i % 10 == 0);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(10, histogram.getErrors());
+        assertEquals(5050, histogram.getTotalMillis());
+        assertEquals(100, histogram.getMaxMillis());
+    }
+
+    @Test
+    void percentilesStayWithinTheBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * MILLIS, false);
+        }
+        for (int percentile : new int[]{1, 25, 50, 90, 99}) {
+            double value = histogram.getPercentileMillis(percentile);
+            assertTrue(value >= percentile && value <= percentile * 1.125, "p" + percentile + " = " + value);
+        }
+        assertEquals(100, histogram.getPercentileMillis(100), 0);
+    }
+
+    @Test
+    void bucketUpperBoundIsAtMostOneEighthAbove() {
+        for (long micros = 1; micros < 5_000_000; micros = micros * 17 / 16 + 1) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(micros * 1_000, false);
+            histogram.record(10_000_000 * MILLIS, false);
+            double value = histogram.getPercentileMillis(50) * 1_000;
+            assertTrue(value >= micros && value <= micros * 1.125 + 1, micros + " us -> " + value + " us");
+        }
+    }
+
+    @Test
+    void subMicrosecondValuesCountAsOneMicrosecond() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(300, false);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0.001, histogram.getPercentileMillis(100), 1e-9);
+    }
+
+    @Test
+    void recordsFromSeveralThreads() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 1; i <= 10_000; i++) {
+                    histogram.record(i * 1_000L, false);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(10, histogram.getMaxMillis());
+    }
+}
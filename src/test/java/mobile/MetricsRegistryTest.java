@@ -0,0 +1,34 @@
+package mobile;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsRegistryTest {
+
+    @Test
+    void groupsAreActiveByDefault() {
+        assertTrue(MetricsRegistry.register("test.active", () -> "", () -> false, () -> { }));
+    }
+
+    @Test
+    void resetAllResetsEveryGroup() {
+        AtomicInteger resets = new AtomicInteger();
+        MetricsRegistry.register("test.first", () -> "", () -> false, resets::incrementAndGet);
+        MetricsRegistry.register("test.second", () -> "", () -> false, resets::incrementAndGet);
+        MetricsRegistry.resetAll();
+        assertEquals(2, resets.get());
+    }
+
+    @Test
+    void summaryIsOnlyBuiltForGroupsWithRecords() {
+        AtomicInteger summaries = new AtomicInteger();
+        MetricsRegistry.register("test.empty", () -> "vazio " + summaries.incrementAndGet(), () -> false, () -> { });
+        MetricsRegistry.register("test.recorded", () -> "registrado " + summaries.addAndGet(10), () -> true, () -> { });
+        MetricsRegistry.logSummaries();
+        assertEquals(10, summaries.get());
+    }
+}
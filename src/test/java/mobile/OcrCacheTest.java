@@ -0,0 +1,157 @@
+package mobile;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OcrCacheTest {
+
+    private static final int WIDTH = 360;
+    private static final int HEIGHT = 640;
+
+    @BeforeEach
+    void clear() {
+        OcrCache.clear();
+    }
+
+    @Test
+    void distanceCountsDifferentBits() {
+        assertEquals(0, OcrCache.distance(new long[]{0b1011L, -1L}, new long[]{0b1011L, -1L}));
+        assertEquals(3, OcrCache.distance(new long[]{0b1011L, 0}, new long[]{0, 0}));
+        assertEquals(65, OcrCache.distance(new long[]{1L, -1L}, new long[]{0, 0}));
+        assertEquals(OcrCache.distance(new long[]{5L, 9L}, new long[]{3L, 6L}), OcrCache.distance(new long[]{3L, 6L}, new long[]{5L, 9L}));
+    }
+
+    @Test
+    void hashOfEqualImagesIsEqual() {
+        long[] hash = OcrCache.hash(screen(null, 0));
+        assertEquals((200 * 90 + 63) / 64, hash.length);
+        assertEquals(0, OcrCache.distance(hash, OcrCache.hash(screen(null, 0))));
+    }
+
+    @Test
+    void hashIgnoresStatusBar() {
+        BufferedImage image = screen(null, 0);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLACK);
+        graphics.fillRect(WIDTH - 60, 4, 50, 20);
+        graphics.dispose();
+        assertEquals(0, OcrCache.distance(OcrCache.hash(screen(null, 0)), OcrCache.hash(image)));
+    }
+
+    @Test
+    void hashOfDifferentScreensIsDistant() {
+        BufferedImage other = screen(null, 0);
+        Graphics2D graphics = other.createGraphics();
+        graphics.setColor(Color.BLACK);
+        for (int x = 0; x < WIDTH; x += 24) {
+            graphics.fillRect(x, HEIGHT / 2, 12, HEIGHT / 4);
+        }
+        graphics.dispose();
+        assertTrue(OcrCache.distance(OcrCache.hash(screen(null, 0)), OcrCache.hash(other)) > 100);
+    }
+
+    @Test
+    void identicalCaptureIsExactHit() {
+        DriverSession session = new DriverSession();
+        byte[] screenshot = png(screen(null, 0));
+        OcrCache.Frame first = OcrCache.frame(session, screenshot, -1);
+        first.putText("tile inteira", "R$ 10,00");
+
+        OcrCache.Frame second = OcrCache.frame(session, screenshot.clone(), -1);
+        assertFalse(second.isPerceptual());
+        assertEquals("R$ 10,00", second.getText("tile inteira"));
+    }
+
+    @Test
+    void changedCaptureIsMissByDefault() {
+        DriverSession session = new DriverSession();
+        OcrCache.frame(session, png(screen(null, 0)), -1).putText("tile inteira", "R$ 10,00");
+
+        OcrCache.Frame changed = OcrCache.frame(session, png(screen("R$ 18,00", 0)), -1);
+        assertFalse(changed.isPerceptual());
+        assertNull(changed.getText("tile inteira"));
+    }
+
+    @Test
+    void perceptualHitDoesNotReuseTexts() {
+        DriverSession session = new DriverSession();
+        BufferedImage original = screen(null, 0);
+        BufferedImage changed = screen(null, 1);
+        int distance = OcrCache.distance(OcrCache.hash(original), OcrCache.hash(changed));
+        OcrCache.frame(session, png(original), distance).putText("tile inteira", "R$ 10,00");
+
+        OcrCache.Frame similar = OcrCache.frame(session, png(changed), distance);
+        assertTrue(similar.isPerceptual());
+        assertNull(similar.getText("tile inteira"));
+        similar.putText("tile inteira", "R$ 18,00");
+
+        assertEquals("R$ 10,00", OcrCache.frame(session, png(original), distance).getText("tile inteira"));
+    }
+
+    @Test
+    void otherSessionIsMiss() {
+        byte[] screenshot = png(screen(null, 0));
+        OcrCache.frame(new DriverSession(), screenshot, 18000).putText("tile inteira", "R$ 10,00");
+
+        OcrCache.Frame frame = OcrCache.frame(new DriverSession(), screenshot, 18000);
+        assertFalse(frame.isPerceptual());
+        assertNull(frame.getText("tile inteira"));
+    }
+
+    @Test
+    void evictedSessionIsMiss() {
+        DriverSession closed = new DriverSession();
+        DriverSession open = new DriverSession();
+        byte[] screenshot = png(screen(null, 0));
+        OcrCache.frame(closed, screenshot, -1).putText("tile inteira", "R$ 10,00");
+        OcrCache.frame(open, screenshot, -1).putText("tile inteira", "R$ 20,00");
+
+        OcrCache.evict(closed);
+        assertNull(OcrCache.frame(closed, screenshot, -1).getText("tile inteira"));
+        assertEquals("R$ 20,00", OcrCache.frame(open, screenshot, -1).getText("tile inteira"));
+    }
+
+    /**
+     * Tela sintética com blocos de cores diferentes; o texto opcional e o deslocamento do cursor alteram poucos pixels.
+     */
+    private static BufferedImage screen(String text, int cursor) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, WIDTH, HEIGHT);
+        graphics.setColor(new Color(30, 90, 200));
+        graphics.fillRect(20, 80, WIDTH - 40, 60);
+        graphics.setColor(new Color(220, 60, 40));
+        graphics.fillRect(40, 300, 120, 120);
+        graphics.setColor(Color.DARK_GRAY);
+        graphics.fillRect(200 + cursor, 500, 2, 30);
+        if (text != null) {
+            graphics.setColor(Color.BLACK);
+            graphics.drawString(text, 60, 200);
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    private static byte[] png(BufferedImage image) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
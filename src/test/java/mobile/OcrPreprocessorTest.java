@@ -0,0 +1,90 @@
+package mobile;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.RescaleOp;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OcrPreprocessorTest {
+
+    private static final int SIZE = 1024;
+
+    @Test
+    void fixedThresholdMatchesLegacyOnIntRgb() {
+        assertMatchesLegacy(BufferedImage.TYPE_INT_RGB);
+    }
+
+    @Test
+    void fixedThresholdMatchesLegacyOnIntArgb() {
+        assertMatchesLegacy(BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Test
+    void fixedThresholdMatchesLegacyOn3ByteBgr() {
+        assertMatchesLegacy(BufferedImage.TYPE_3BYTE_BGR);
+    }
+
+    @Test
+    void fixedThresholdMatchesLegacyOnGray() {
+        BufferedImage image = new BufferedImage(256, 1, BufferedImage.TYPE_BYTE_GRAY);
+        for (int x = 0; x < 256; x++) {
+            image.getRaster().setSample(x, 0, 0, x);
+        }
+        assertEquals(0, countDifferences(legacy(image), OcrPreprocessor.process(image, OcrPreprocessor.Threshold.FIXED, 1)));
+    }
+
+    private static void assertMatchesLegacy(int type) {
+        BufferedImage image = new BufferedImage(SIZE, SIZE, type);
+        Random random = new Random(42);
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                image.setRGB(x, y, 0xff000000 | random.nextInt(1 << 24));
+            }
+        }
+        BufferedImage processed = OcrPreprocessor.process(image, OcrPreprocessor.Threshold.FIXED, 1);
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, processed.getType());
+        assertEquals(0, countDifferences(legacy(image), processed));
+    }
+
+    private static int countDifferences(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        int differences = 0;
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                if ((expected.getRGB(x, y) & 0xffffff) != (actual.getRGB(x, y) & 0xffffff)) {
+                    differences++;
+                }
+            }
+        }
+        return differences;
+    }
+
+    /**
+     * Implementação anterior do MobileBaseActions.preprocessImage.
+     */
+    private static BufferedImage legacy(BufferedImage image) {
+        BufferedImage grayscaleImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = grayscaleImage.createGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+
+        RescaleOp rescaleOp = new RescaleOp(1.5f, 0, null);
+        rescaleOp.filter(grayscaleImage, grayscaleImage);
+
+        for (int y = 0; y < grayscaleImage.getHeight(); y++) {
+            for (int x = 0; x < grayscaleImage.getWidth(); x++) {
+                int rgb = grayscaleImage.getRGB(x, y);
+                int gray = (rgb >> 16) & 0xff;
+                gray = gray > 128 ? 255 : 0;
+                rgb = (gray << 16) | (gray << 8) | gray;
+                grayscaleImage.setRGB(x, y, rgb);
+            }
+        }
+        return grayscaleImage;
+    }
+}
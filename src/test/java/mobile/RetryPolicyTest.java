@@ -0,0 +1,82 @@
+package mobile;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryPolicyTest {
+
+    private static final Duration BUDGET = Duration.ofSeconds(5);
+
+    private final RetryPolicy policy = new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(2), 0,
+            List.of(IllegalStateException.class));
+
+    @Test
+    void retriesUntilTheActionSucceeds() {
+        AtomicInteger calls = new AtomicInteger();
+        String result = policy.execute("retryTest.succeeds", BUDGET, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new IllegalStateException("falha " + calls.get());
+            }
+            return "ok";
+        });
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, RetryPolicy.getRetries("retryTest.succeeds"));
+    }
+
+    @Test
+    void stopsAfterTheMaximumAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(IllegalStateException.class, () -> policy.run("retryTest.exhausted", BUDGET, () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("sempre");
+        }));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void doesNotRetryOtherExceptions() {
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(IllegalArgumentException.class, () -> policy.run("retryTest.notRetryable", BUDGET, () -> {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("definitiva");
+        }));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void doesNotRetryWhenThePauseExceedsTheBudget() {
+        RetryPolicy slow = new RetryPolicy(5, Duration.ofSeconds(1), Duration.ofSeconds(1), 0, List.of(IllegalStateException.class));
+        AtomicInteger calls = new AtomicInteger();
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> slow.run("retryTest.budget", Duration.ofMillis(100), () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("sempre");
+        }));
+        assertEquals(1, calls.get());
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(900).toNanos());
+    }
+
+    @Test
+    void retryableCauseIsRecognized() {
+        assertTrue(policy.isRetryable(new RuntimeException(new IllegalStateException())));
+        assertFalse(policy.isRetryable(new RuntimeException(new IllegalArgumentException())));
+    }
+
+    @Test
+    void actionRunsInsideADeadline() {
+        assertNull(Deadline.current());
+        policy.run("retryTest.deadline", BUDGET, () -> assertNotNull(Deadline.current()));
+        assertNull(Deadline.current());
+    }
+}
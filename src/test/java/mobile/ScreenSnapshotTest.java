@@ -0,0 +1,126 @@
+package mobile;
+
+import exceptions.AutomationException;
+import io.appium.java_client.AppiumBy;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Rectangle;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScreenSnapshotTest {
+
+    private static final String ANDROID = "<?xml version='1.0' encoding='UTF-8' standalone='yes' ?>"
+            + "<hierarchy index=\"0\" class=\"hierarchy\" rotation=\"0\" width=\"1080\" height=\"2400\">"
+            + "<android.widget.FrameLayout index=\"0\" class=\"android.widget.FrameLayout\" text=\"\" resource-id=\"\""
+            + " content-desc=\"\" enabled=\"true\" displayed=\"true\" bounds=\"[0,0][1080,2400]\">"
+            + "<android.widget.TextView index=\"0\" class=\"android.widget.TextView\" text=\"Saldo\""
+            + " resource-id=\"br.com.exemplo.app:id/title\" content-desc=\"\" enabled=\"true\" displayed=\"true\" bounds=\"[48,120][540,200]\"/>"
+            + "<android.widget.Button index=\"1\" class=\"android.widget.Button\" text=\"Continuar\""
+            + " resource-id=\"br.com.exemplo.app:id/continue\" content-desc=\"continuar\" enabled=\"false\" displayed=\"true\""
+            + " bounds=\"[48,2200][1032,2330]\"/>"
+            + "<android.widget.TextView index=\"2\" class=\"android.widget.TextView\" text=\"Oculto\""
+            + " resource-id=\"br.com.exemplo.app:id/hidden\" content-desc=\"\" enabled=\"true\" displayed=\"false\" bounds=\"[0,0][100,100]\"/>"
+            + "<android.widget.TextView index=\"3\" class=\"android.widget.TextView\" text=\"Vazio\""
+            + " resource-id=\"br.com.exemplo.app:id/empty\" content-desc=\"\" enabled=\"true\" displayed=\"true\" bounds=\"[10,10][10,50]\"/>"
+            + "</android.widget.FrameLayout></hierarchy>";
+
+    private static final String IOS = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><AppiumAUT>"
+            + "<XCUIElementTypeApplication type=\"XCUIElementTypeApplication\" name=\"Exemplo\" label=\"Exemplo\""
+            + " enabled=\"true\" visible=\"true\" x=\"0\" y=\"0\" width=\"393\" height=\"852\">"
+            + "<XCUIElementTypeButton type=\"XCUIElementTypeButton\" name=\"continuar\" label=\"Continuar\""
+            + " enabled=\"true\" visible=\"true\" x=\"16\" y=\"780\" width=\"361\" height=\"50\"/>"
+            + "<XCUIElementTypeStaticText type=\"XCUIElementTypeStaticText\" name=\"saldo\" value=\"R$ 10,00\" label=\"Saldo\""
+            + " enabled=\"true\" visible=\"false\" x=\"16\" y=\"100\" width=\"200\" height=\"20\"/>"
+            + "</XCUIElementTypeApplication></AppiumAUT>";
+
+    @Test
+    void androidBoundsAreConvertedToPositionAndSize() {
+        ScreenSnapshot snapshot = ScreenSnapshot.parse(ANDROID);
+        Rectangle bounds = snapshot.getBounds(By.id("br.com.exemplo.app:id/title"));
+        assertEquals(48, bounds.getX());
+        assertEquals(120, bounds.getY());
+        assertEquals(492, bounds.getWidth());
+        assertEquals(80, bounds.getHeight());
+    }
+
+    @Test
+    void androidLocators() {
+        ScreenSnapshot snapshot = ScreenSnapshot.parse(ANDROID);
+        assertEquals("Saldo", snapshot.getText(By.id("title")));
+        assertEquals("Continuar", snapshot.getText(By.id("continuar")));
+        assertEquals("Continuar", snapshot.getText(AppiumBy.accessibilityId("continuar")));
+        assertEquals(3, snapshot.findAll(By.className("android.widget.TextView")).size());
+        assertEquals("Saldo", snapshot.findAll(By.className("android.widget.TextView")).get(0).getText());
+        assertEquals(1, snapshot.findByText("Oculto").size());
+        assertNull(snapshot.getText(By.id("inexistente")));
+        assertFalse(snapshot.find(By.id("continue")).get().isEnabled());
+    }
+
+    @Test
+    void xpathUsesTheSameElements() {
+        ScreenSnapshot snapshot = ScreenSnapshot.parse(ANDROID);
+        List<ScreenSnapshot.Element> found = snapshot.findAll(By.xpath("//android.widget.Button[@text='Continuar']"));
+        assertEquals(1, found.size());
+        assertEquals("br.com.exemplo.app:id/continue", found.get(0).getResourceId());
+        assertEquals("android.widget.FrameLayout", found.get(0).getParent().getClassName());
+        assertThrows(AutomationException.class, () -> snapshot.findAll(By.xpath("//[")));
+    }
+
+    @Test
+    void displayedRequiresVisibilityAndArea() {
+        ScreenSnapshot snapshot = ScreenSnapshot.parse(ANDROID);
+        assertTrue(snapshot.isDisplayed(By.id("title")));
+        assertTrue(snapshot.isPresent(By.id("hidden")));
+        assertFalse(snapshot.isDisplayed(By.id("hidden")));
+        assertTrue(snapshot.isPresent(By.id("empty")));
+        assertFalse(snapshot.isDisplayed(By.id("empty")));
+        assertFalse(snapshot.isDisplayed(By.id("inexistente")));
+    }
+
+    @Test
+    void iosElements() {
+        ScreenSnapshot snapshot = ScreenSnapshot.parse(IOS);
+        assertEquals("Continuar", snapshot.getText(AppiumBy.accessibilityId("continuar")));
+        assertEquals("R$ 10,00", snapshot.getText(By.name("saldo")));
+        assertEquals(1, snapshot.findAll(By.className("XCUIElementTypeButton")).size());
+
+        Rectangle bounds = snapshot.getBounds(By.name("continuar"));
+        assertEquals(16, bounds.getX());
+        assertEquals(780, bounds.getY());
+        assertEquals(361, bounds.getWidth());
+        assertEquals(50, bounds.getHeight());
+
+        assertTrue(snapshot.isDisplayed(By.name("continuar")));
+        assertFalse(snapshot.isDisplayed(By.name("saldo")));
+    }
+
+    @Test
+    void fingerprintChangesWithTheScreen() {
+        long fingerprint = ScreenSnapshot.parse(ANDROID).fingerprint();
+        assertEquals(fingerprint, ScreenSnapshot.parse(ANDROID).fingerprint());
+        assertNotEquals(fingerprint, ScreenSnapshot.parse(ANDROID.replace("[48,120][540,200]", "[48,20][540,100]")).fingerprint());
+        assertNotEquals(fingerprint, ScreenSnapshot.parse(ANDROID.replace("text=\"Saldo\"", "text=\"Extrato\"")).fingerprint());
+    }
+
+    @Test
+    void supportedLocators() {
+        assertTrue(ScreenSnapshot.supports(By.id("title")));
+        assertTrue(ScreenSnapshot.supports(By.xpath("//*")));
+        assertTrue(ScreenSnapshot.supports(AppiumBy.accessibilityId("continuar")));
+        assertFalse(ScreenSnapshot.supports(By.cssSelector("#title")));
+        assertFalse(ScreenSnapshot.supports(AppiumBy.androidUIAutomator("new UiSelector()")));
+    }
+
+    @Test
+    void invalidSourceFails() {
+        assertThrows(AutomationException.class, () -> ScreenSnapshot.parse("<hierarchy><node></hierarchy>"));
+    }
+}
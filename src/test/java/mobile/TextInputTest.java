@@ -0,0 +1,35 @@
+package mobile;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextInputTest {
+
+    @Test
+    void identicalValueMatches() {
+        assertTrue(TextInput.matches("a@b.com", "a@b.com"));
+        assertTrue(TextInput.matches("João Silva", "João Silva"));
+    }
+
+    @Test
+    void maskIsIgnoredWhenTheTextHasNoMaskCharacters() {
+        assertTrue(TextInput.matches("123.456.789-00", "12345678900"));
+        assertTrue(TextInput.matches("(11) 98765-4321", "11987654321"));
+    }
+
+    @Test
+    void textWithPunctuationMustMatchExactly() {
+        assertFalse(TextInput.matches("ab.com", "a@b.com"));
+        assertFalse(TextInput.matches("a@bcom", "a@b.com"));
+        assertFalse(TextInput.matches("JoãoSilva", "João Silva"));
+    }
+
+    @Test
+    void partialOrMissingValueDoesNotMatch() {
+        assertFalse(TextInput.matches(null, "123"));
+        assertFalse(TextInput.matches("1234", "123"));
+        assertFalse(TextInput.matches("old123", "123"));
+    }
+}
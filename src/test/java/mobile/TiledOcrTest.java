@@ -0,0 +1,62 @@
+package mobile;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TiledOcrTest {
+
+    @Test
+    void fullImageComesFirst() {
+        List<TiledOcr.Tile> tiles = TiledOcr.tiles(1000, 2000);
+        assertEquals("inteira", tiles.get(0).getName());
+        assertEquals(new Rectangle(0, 0, 1000, 2000), tiles.get(0).getBounds());
+    }
+
+    @Test
+    void gridTilesOverlapTheirNeighbours() {
+        List<TiledOcr.Tile> tiles = TiledOcr.tiles(1000, 2000);
+        assertEquals(5, tiles.size());
+        assertTile(tiles.get(1), "0x0", 0, 0, 550, 1100);
+        assertTile(tiles.get(2), "1x0", 450, 0, 550, 1100);
+        assertTile(tiles.get(3), "0x1", 0, 900, 550, 1100);
+        assertTile(tiles.get(4), "1x1", 450, 900, 550, 1100);
+    }
+
+    @Test
+    void lastColumnAndRowReachTheEdge() {
+        List<TiledOcr.Tile> tiles = TiledOcr.tiles(1081, 2401);
+        Rectangle last = tiles.get(tiles.size() - 1).getBounds();
+        assertEquals(1081, last.x + last.width);
+        assertEquals(2401, last.y + last.height);
+    }
+
+    @Test
+    void tilesCoverTheImageWithoutLeavingIt() {
+        int width = 1179;
+        int height = 2556;
+        Rectangle image = new Rectangle(0, 0, width, height);
+        List<TiledOcr.Tile> tiles = TiledOcr.tiles(width, height);
+        for (TiledOcr.Tile tile : tiles.subList(1, tiles.size())) {
+            assertTrue(image.contains(tile.getBounds()), tile.toString());
+        }
+        for (int y = 0; y < height; y += 7) {
+            for (int x = 0; x < width; x += 7) {
+                boolean covered = false;
+                for (TiledOcr.Tile tile : tiles.subList(1, tiles.size())) {
+                    covered |= tile.getBounds().contains(x, y);
+                }
+                assertTrue(covered, "Pixel fora dos blocos: " + x + "," + y);
+            }
+        }
+    }
+
+    private static void assertTile(TiledOcr.Tile tile, String name, int x, int y, int width, int height) {
+        assertEquals(name, tile.getName());
+        assertEquals(new Rectangle(x, y, width, height), tile.getBounds());
+    }
+}